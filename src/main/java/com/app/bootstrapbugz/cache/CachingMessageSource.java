@@ -0,0 +1,78 @@
+package com.app.bootstrapbugz.cache;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches argument-less messages per locale in front of another message source, so resolving an error message is a
+ * map lookup. Messages with arguments and resolvables go straight to the delegate. Only the first few locales seen
+ * get a cache, so arbitrary Accept-Language values cannot grow it without bound.
+ */
+public class CachingMessageSource implements MessageSource {
+    private final MessageSource delegate;
+    private final int maxLocales;
+    private final Map<Locale, Map<String, String>> messages = new ConcurrentHashMap<>();
+
+    public CachingMessageSource(MessageSource delegate, int maxLocales) {
+        this.delegate = delegate;
+        this.maxLocales = maxLocales;
+    }
+
+    public void warmUp(Collection<String> codes, Collection<Locale> locales) {
+        for (Locale locale : locales) {
+            Map<String, String> cache = cacheFor(locale);
+            if (cache != null)
+                codes.forEach(code -> cache.put(code, delegate.getMessage(code, null, locale)));
+        }
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, String defaultMessage, Locale locale) {
+        if (args != null && args.length > 0)
+            return delegate.getMessage(code, args, defaultMessage, locale);
+        Map<String, String> cache = cacheFor(locale);
+        String message = cache == null ? null : cache.get(code);
+        if (message != null)
+            return message;
+        message = delegate.getMessage(code, null, null, locale);
+        if (message == null)
+            return defaultMessage;
+        if (cache != null)
+            cache.put(code, message);
+        return message;
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, Locale locale) throws NoSuchMessageException {
+        if (args != null && args.length > 0)
+            return delegate.getMessage(code, args, locale);
+        Map<String, String> cache = cacheFor(locale);
+        String message = cache == null ? null : cache.get(code);
+        if (message != null)
+            return message;
+        message = delegate.getMessage(code, null, locale);
+        if (cache != null)
+            cache.put(code, message);
+        return message;
+    }
+
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+        return delegate.getMessage(resolvable, locale);
+    }
+
+    private Map<String, String> cacheFor(Locale locale) {
+        if (locale == null)
+            return null;
+        Map<String, String> cache = messages.get(locale);
+        if (cache == null && messages.size() < maxLocales)
+            cache = messages.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        return cache;
+    }
+}
@@ -0,0 +1,45 @@
+package com.app.bootstrapbugz.cache;
+
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.model.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers when a JWT email was last requested per purpose and normalized address. Callers acquire only once the
+ * account has been resolved and checked, so repeat requests inside the window are coalesced into the pending one
+ * without a token or an email. The least recently requested addresses are evicted once the configured size is reached.
+ */
+@Component
+public class EmailRateLimiter {
+    private final long windowMillis;
+    private final Map<String, Long> lastRequests;
+
+    public EmailRateLimiter(@Value("${email.rate-limit.window-seconds}") long windowSeconds,
+                            @Value("${email.rate-limit.max-entries}") int maxEntries) {
+        this.windowMillis = windowSeconds * 1000;
+        this.lastRequests = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean tryAcquire(JwtPurpose purpose, String address) {
+        if (address == null)
+            return true;
+        String key = purpose.name() + ':' + User.normalize(address);
+        long now = System.currentTimeMillis();
+        synchronized (lastRequests) {
+            Long last = lastRequests.get(key);
+            if (last != null && now - last < windowMillis)
+                return false;
+            lastRequests.put(key, now);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.app.bootstrapbugz.cache;
+
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over normalized usernames and emails. A miss means the value is definitely free, a hit
+ * falls through to the database, whose unique constraints stay the source of truth. Until the filters
+ * are loaded every lookup goes to the database.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private volatile boolean loaded;
+
+    public UserExistenceFilter(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                               @Value("${user.existence-filter.expected-insertions}") long expectedInsertions,
+                               @Value("${user.existence-filter.false-positive-probability}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.usernames = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = userRepository.streamUsernamesAndEmails()) {
+                rows.forEach(row -> {
+                    put((String) row[0], (String) row[1]);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        loaded = true;
+        log.info("Loaded {} users into the existence filter", count.get());
+    }
+
+    public void put(String username, String email) {
+        if (username != null)
+            usernames.put(User.normalize(username));
+        if (email != null)
+            emails.put(User.normalize(email));
+    }
+
+    public boolean isUsernameTaken(String username) {
+        if (username == null)
+            return false;
+        if (loaded && !usernames.mightContain(User.normalize(username)))
+            return false;
+        return userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        if (email == null)
+            return false;
+        if (loaded && !emails.mightContain(User.normalize(email)))
+            return false;
+        return userRepository.existsByEmail(email);
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+
+        private BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+            long optimalBits = (long) (-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((Math.max(optimalBits, 64) + 63) / 64));
+            this.numBits = bits.length() * 64L;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        }
+
+        private void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, numBits);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, numBits);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long value) {
+            value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+            value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return value ^ (value >>> 33);
+        }
+    }
+}
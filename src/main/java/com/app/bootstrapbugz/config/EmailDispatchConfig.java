@@ -0,0 +1,58 @@
+package com.app.bootstrapbugz.config;
+
+import com.app.bootstrapbugz.constant.EmailRejectionPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Slf4j
+@Configuration
+@EnableScheduling
+public class EmailDispatchConfig {
+    @Bean
+    public ThreadPoolTaskExecutor emailExecutor(@Value("${email.dispatch.pool-size}") int poolSize,
+                                                @Value("${email.dispatch.queue-capacity}") int queueCapacity,
+                                                @Value("${email.dispatch.rejection-policy}") EmailRejectionPolicy rejectionPolicy,
+                                                MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(rejectedExecutionHandler(rejectionPolicy, meterRegistry.counter("email.dispatch.rejected")));
+        executor.setThreadNamePrefix("email-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        Gauge.builder("email.dispatch.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("email.dispatch.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * DISCARD still throws after counting the rejection, so the submitter learns the task was dropped and can
+     * give back what it holds for it, e.g. the relay's claim on a batch.
+     */
+    static RejectedExecutionHandler rejectedExecutionHandler(EmailRejectionPolicy rejectionPolicy, Counter rejected) {
+        RejectedExecutionHandler delegate = rejectionPolicy == EmailRejectionPolicy.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : (task, executor) -> {
+                    log.warn("Email dispatch queue is full, dropping email");
+                    throw new RejectedExecutionException("Email dispatch queue is full");
+                };
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.bootstrapbugz.config;
+
+import com.app.bootstrapbugz.error.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ErrorConfig {
+    public ErrorConfig(@Value("${error.stack-traces}") boolean stackTraces) {
+        BusinessException.setStackTraceEnabled(stackTraces);
+    }
+}
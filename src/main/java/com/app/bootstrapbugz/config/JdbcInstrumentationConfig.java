@@ -0,0 +1,38 @@
+package com.app.bootstrapbugz.config;
+
+import com.app.bootstrapbugz.metrics.InstrumentedDataSource;
+import com.app.bootstrapbugz.metrics.QueryStatsFilter;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "jdbc.instrumentation.enabled", havingValue = "true")
+public class JdbcInstrumentationConfig {
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(Environment environment) {
+        long slowQueryMillis = environment.getRequiredProperty("jdbc.instrumentation.slow-query-ms", Long.class);
+        int repeatedStatementThreshold = environment.getRequiredProperty("jdbc.instrumentation.repeated-statement-threshold", Integer.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof InstrumentedDataSource)
+                    return bean;
+                return new InstrumentedDataSource((DataSource) bean, slowQueryMillis, repeatedStatementThreshold);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter() {
+        FilterRegistrationBean<QueryStatsFilter> registration = new FilterRegistrationBean<>(new QueryStatsFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -1,11 +1,17 @@
 package com.app.bootstrapbugz.config;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Properties;
 
@@ -25,6 +31,25 @@ public class MailConfig {
         return mailSender;
     }
 
+    /**
+     * Opens when too many sends fail on the server side, so callers fail fast instead of waiting out SMTP
+     * timeouts. Rejected recipients do not count as failures.
+     */
+    @Bean
+    public CircuitBreaker mailCircuitBreaker(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(environment.getRequiredProperty("email.circuit-breaker.failure-rate-threshold", Float.class))
+                .slidingWindowSize(environment.getRequiredProperty("email.circuit-breaker.sliding-window-size", Integer.class))
+                .minimumNumberOfCalls(environment.getRequiredProperty("email.circuit-breaker.minimum-number-of-calls", Integer.class))
+                .waitDurationInOpenState(Duration.ofMillis(environment.getRequiredProperty("email.circuit-breaker.wait-duration-ms", Long.class)))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker("mail");
+    }
+
     private JavaMailSenderImpl createMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setHost(environment.getProperty("spring.mail.host"));
@@ -40,6 +65,9 @@ public class MailConfig {
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.debug", "true");
+        props.put("mail.smtp.connectiontimeout", environment.getProperty("email.smtp.connect-timeout-ms"));
+        props.put("mail.smtp.timeout", environment.getProperty("email.smtp.read-timeout-ms"));
+        props.put("mail.smtp.writetimeout", environment.getProperty("email.smtp.write-timeout-ms"));
+        props.put("mail.debug", environment.getProperty("email.smtp.debug"));
     }
 }
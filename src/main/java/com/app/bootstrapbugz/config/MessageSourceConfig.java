@@ -1,17 +1,32 @@
 package com.app.bootstrapbugz.config;
 
+import com.app.bootstrapbugz.cache.CachingMessageSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
 
 @Configuration
 public class MessageSourceConfig {
     @Bean
-    public MessageSource messageSource() {
+    public MessageSource messageSource(@Value("${messages.cache.locales}") String[] locales,
+                                       @Value("${messages.cache.max-locales}") int maxLocales) throws IOException {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
         messageSource.setBasename("classpath:/ValidationMessages");
         messageSource.setDefaultEncoding("UTF-8");
-        return messageSource;
+
+        CachingMessageSource cachingMessageSource = new CachingMessageSource(messageSource, maxLocales);
+        cachingMessageSource.warmUp(
+                PropertiesLoaderUtils.loadProperties(new ClassPathResource("ValidationMessages.properties")).stringPropertyNames(),
+                Arrays.stream(locales).map(Locale::forLanguageTag).collect(Collectors.toList()));
+        return cachingMessageSource;
     }
 }
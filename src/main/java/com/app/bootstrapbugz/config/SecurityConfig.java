@@ -1,9 +1,13 @@
 package com.app.bootstrapbugz.config;
 
 import com.app.bootstrapbugz.error.handling.CustomAuthenticationEntryPoint;
+import com.app.bootstrapbugz.error.handling.CustomFilterExceptionHandler;
 import com.app.bootstrapbugz.security.jwt.JwtAuthenticationFilter;
 import com.app.bootstrapbugz.security.jwt.JwtAuthorizationFilter;
 import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.app.bootstrapbugz.metrics.TimedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
@@ -31,6 +35,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private final JwtUtilities jwtUtilities;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final CustomFilterExceptionHandler customFilterExceptionHandler;
+    private final MeterRegistry meterRegistry;
 
     private static final String[] STATIC_WHITELIST = {
             "/",
@@ -60,11 +67,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     public SecurityConfig(@Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService,
                           JwtUtilities jwtUtilities, CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
-                          MessageSource messageSource) {
+                          MessageSource messageSource, ObjectMapper objectMapper,
+                          CustomFilterExceptionHandler customFilterExceptionHandler, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtilities = jwtUtilities;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
         this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.customFilterExceptionHandler = customFilterExceptionHandler;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -80,7 +91,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     @Bean
     public PasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Override
@@ -91,8 +102,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .csrf().disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 .and()
-                .addFilter(new JwtAuthenticationFilter(authenticationManager(), jwtUtilities, messageSource))
-                .addFilter(new JwtAuthorizationFilter(authenticationManager(), jwtUtilities, userDetailsService))
+                .addFilter(new JwtAuthenticationFilter(authenticationManager(), jwtUtilities, messageSource, objectMapper,
+                        customFilterExceptionHandler, meterRegistry))
+                .addFilter(new JwtAuthorizationFilter(authenticationManager(), jwtUtilities, userDetailsService, meterRegistry))
                 .exceptionHandling().authenticationEntryPoint(customAuthenticationEntryPoint)
                 .and()
                 .authorizeRequests()
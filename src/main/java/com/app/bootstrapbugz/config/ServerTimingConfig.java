@@ -0,0 +1,38 @@
+package com.app.bootstrapbugz.config;
+
+import com.app.bootstrapbugz.metrics.ServerTimingFilter;
+import com.app.bootstrapbugz.metrics.ServerTimingInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Adds the Server-Timing header when {@code server-timing.enabled=true}. The {@code db} phase is recorded by the
+ * data source wrapper from {@link JdbcInstrumentationConfig}, so it only appears while
+ * {@code jdbc.instrumentation.enabled=true} as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+    private final ServerTimingInterceptor serverTimingInterceptor;
+
+    public ServerTimingConfig(ServerTimingInterceptor serverTimingInterceptor) {
+        this.serverTimingInterceptor = serverTimingInterceptor;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serverTimingInterceptor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.bootstrapbugz.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class UserImportConfig {
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${admin.import.hashing-threads}") int threads,
+                                                          @Value("${admin.import.batch-size}") int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(batchSize);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.app.bootstrapbugz.constant;
+
+public enum AdminOperation {
+    LOGOUT,
+    CHANGE_ROLE,
+    LOCK,
+    UNLOCK,
+    ACTIVATE,
+    DEACTIVATE,
+    DELETE,
+    IMPORT
+}
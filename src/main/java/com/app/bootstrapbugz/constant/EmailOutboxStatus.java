@@ -0,0 +1,7 @@
+package com.app.bootstrapbugz.constant;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
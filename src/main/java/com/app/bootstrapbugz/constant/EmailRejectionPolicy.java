@@ -0,0 +1,6 @@
+package com.app.bootstrapbugz.constant;
+
+public enum EmailRejectionPolicy {
+    CALLER_RUNS,
+    DISCARD
+}
@@ -3,7 +3,8 @@ package com.app.bootstrapbugz.constant;
 public enum ErrorDomain {
     GLOBAL("global"),
     USER("user"),
-    AUTH("auth");
+    AUTH("auth"),
+    ADMIN("admin");
 
     private final String value;
 
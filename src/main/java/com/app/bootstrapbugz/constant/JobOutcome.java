@@ -0,0 +1,7 @@
+package com.app.bootstrapbugz.constant;
+
+public enum JobOutcome {
+    PROCESSED,
+    NOT_FOUND,
+    FAILED
+}
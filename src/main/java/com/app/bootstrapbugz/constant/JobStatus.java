@@ -0,0 +1,8 @@
+package com.app.bootstrapbugz.constant;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -1,74 +1,114 @@
 package com.app.bootstrapbugz.controller;
 
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.dto.model.admin.AdminJobDto;
+import com.app.bootstrapbugz.dto.model.admin.AdminResultDto;
+import com.app.bootstrapbugz.dto.request.admin.AdminJobRequest;
 import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
 import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
+import com.app.bootstrapbugz.service.AdminJobService;
 import com.app.bootstrapbugz.service.AdminService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
     private final AdminService adminService;
+    private final AdminJobService adminJobService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, AdminJobService adminJobService) {
         this.adminService = adminService;
+        this.adminJobService = adminJobService;
     }
 
     @GetMapping("/users/logout")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> logoutUserFromAllDevices(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.logoutUsersFromAllDevices(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> logoutUserFromAllDevices(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.logoutUsersFromAllDevices(adminRequest)));
     }
 
     @PutMapping("/users/role")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> changeUsersRole(@Valid @RequestBody ChangeRoleRequest changeRoleRequest) {
-        adminService.changeUsersRole(changeRoleRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> changeUsersRole(@Valid @RequestBody ChangeRoleRequest changeRoleRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.changeUsersRole(changeRoleRequest)));
     }
 
     @PutMapping("/users/lock")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> lockUsers(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.lockUsers(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> lockUsers(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.lockUsers(adminRequest)));
     }
 
     @PutMapping("/users/unlock")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> unlockUsers(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.unlockUsers(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> unlockUsers(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.unlockUsers(adminRequest)));
     }
 
     @PutMapping("/users/activate")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> activateUser(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.activateUser(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> activateUser(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.activateUser(adminRequest)));
     }
 
     @PutMapping("/users/deactivate")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deactivateUser(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.deactivateUser(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> deactivateUser(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.deactivateUser(adminRequest)));
     }
 
     @DeleteMapping("/users/delete")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deleteUser(@Valid @RequestBody AdminRequest adminRequest) {
-        adminService.deleteUsers(adminRequest);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<AdminResultDto> deleteUser(@Valid @RequestBody AdminRequest adminRequest) {
+        return ResponseEntity.ok(new AdminResultDto(adminService.deleteUsers(adminRequest)));
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminJobDto> submitJob(@Valid @RequestBody AdminJobRequest adminJobRequest) {
+        return accepted(adminJobService.submit(adminJobRequest));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminJobDto> findJobById(@PathVariable("id") String id,
+                                                   @RequestParam(value = "outcomes", defaultValue = "false") boolean outcomes,
+                                                   @RequestParam(value = "page", defaultValue = "0") int page,
+                                                   @RequestParam(value = "size", defaultValue = "1000") int size) {
+        return ResponseEntity.ok(outcomes ? adminJobService.findById(id, page, size) : adminJobService.findById(id));
+    }
+
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminJobDto> importUsersFromCsv(InputStream inputStream,
+                                                          @RequestParam(value = "sendEmails", defaultValue = "false") boolean sendEmails) {
+        return accepted(adminJobService.submitImport(inputStream, ImportFormat.CSV, sendEmails));
+    }
+
+    @PostMapping(value = "/users/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminJobDto> importUsersFromNdjson(InputStream inputStream,
+                                                             @RequestParam(value = "sendEmails", defaultValue = "false") boolean sendEmails) {
+        return accepted(adminJobService.submitImport(inputStream, ImportFormat.NDJSON, sendEmails));
+    }
+
+    private static ResponseEntity<AdminJobDto> accepted(AdminJobDto job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath().path("/api/admin/jobs/{id}").buildAndExpand(job.getId()).toUri();
+        return ResponseEntity.accepted().location(location).body(job);
     }
 }
@@ -0,0 +1,39 @@
+package com.app.bootstrapbugz.dto.model.admin;
+
+import com.app.bootstrapbugz.constant.AdminOperation;
+import com.app.bootstrapbugz.constant.JobOutcome;
+import com.app.bootstrapbugz.constant.JobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AdminJobDto {
+    private String id;
+    private AdminOperation operation;
+    private JobStatus status;
+    private int total;
+    private int processed;
+    private int affected;
+    private int notFound;
+    private int failed;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private LocalDateTime createdAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private LocalDateTime finishedAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, JobOutcome> outcomes;
+    private String error;
+    private UserImportResultDto result;
+}
@@ -0,0 +1,16 @@
+package com.app.bootstrapbugz.dto.model.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AdminResultDto {
+    private int affected;
+}
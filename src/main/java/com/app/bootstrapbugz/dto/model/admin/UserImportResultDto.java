@@ -0,0 +1,22 @@
+package com.app.bootstrapbugz.dto.model.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UserImportResultDto {
+    private int total;
+    private int imported;
+    private int failed;
+    private Map<Integer, List<String>> errors;
+}
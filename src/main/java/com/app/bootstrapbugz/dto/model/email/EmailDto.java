@@ -0,0 +1,19 @@
+package com.app.bootstrapbugz.dto.model.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailDto {
+    private String to;
+    private String subject;
+    private String text;
+    private String html;
+}
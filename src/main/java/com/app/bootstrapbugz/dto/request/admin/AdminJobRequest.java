@@ -0,0 +1,26 @@
+package com.app.bootstrapbugz.dto.request.admin;
+
+import com.app.bootstrapbugz.constant.AdminOperation;
+import com.app.bootstrapbugz.model.user.RoleName;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AdminJobRequest extends AdminRequest {
+    @NotNull(message = "{operation.notNull}")
+    private AdminOperation operation;
+
+    private List<RoleName> roleNames;
+
+    public AdminJobRequest(AdminOperation operation, List<String> usernames, List<RoleName> roleNames) {
+        super(usernames);
+        this.operation = operation;
+        this.roleNames = roleNames;
+    }
+}
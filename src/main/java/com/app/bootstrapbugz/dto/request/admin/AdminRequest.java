@@ -1,14 +1,13 @@
 package com.app.bootstrapbugz.dto.request.admin;
 
+import com.app.bootstrapbugz.validator.Usernames;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 
-import javax.validation.constraints.NotEmpty;
-import javax.validation.constraints.Pattern;
-import javax.validation.constraints.Size;
 import java.util.List;
 
 @Getter
@@ -17,9 +16,7 @@ import java.util.List;
 @NoArgsConstructor
 @Accessors(chain = true)
 public class AdminRequest {
-    @NotEmpty(message = "{usernames.notEmpty}")
-    protected List<
-            @NotEmpty(message = "{username.notEmpty}")
-            @Size(min = 2, max = 16, message = "{username.size}")
-            @Pattern(regexp = "^[a-zA-Z0-9_]+$", message = "{username.regex}") String> usernames;
+    @Usernames
+    @JsonDeserialize(using = UsernamesDeserializer.class)
+    protected List<String> usernames;
 }
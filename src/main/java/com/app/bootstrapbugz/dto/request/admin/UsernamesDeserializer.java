@@ -0,0 +1,52 @@
+package com.app.bootstrapbugz.dto.request.admin;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a username array into a de-duplicated list. Created by Spring's handler instantiator, so the
+ * {@code admin.request.max-usernames} cap is checked while reading and an oversized request is rejected
+ * before the rest of the array is buffered.
+ */
+public class UsernamesDeserializer extends JsonDeserializer<List<String>> {
+    private final MessageSource messageSource;
+    private final int maxUsernames;
+
+    public UsernamesDeserializer(MessageSource messageSource, @Value("${admin.request.max-usernames}") int maxUsernames) {
+        this.messageSource = messageSource;
+        this.maxUsernames = maxUsernames;
+    }
+
+    @Override
+    public List<String> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken())
+            throw context.wrongTokenException(parser, List.class, JsonToken.START_ARRAY, "Expected an array of usernames");
+        Set<String> usernames = new LinkedHashSet<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING)
+                usernames.add(parser.getText());
+            else if (token == JsonToken.VALUE_NULL)
+                usernames.add(null);
+            else
+                throw context.wrongTokenException(parser, String.class, JsonToken.VALUE_STRING, "Expected a username");
+            if (usernames.size() > maxUsernames)
+                throw new BadRequestException(messageSource.getMessage("usernames.size", new Object[]{String.valueOf(maxUsernames)},
+                        LocaleContextHolder.getLocale()), ErrorDomain.ADMIN);
+        }
+        return new ArrayList<>(usernames);
+    }
+}
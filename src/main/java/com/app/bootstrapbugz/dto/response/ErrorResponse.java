@@ -2,16 +2,11 @@ package com.app.bootstrapbugz.dto.response;
 
 import com.app.bootstrapbugz.constant.ErrorDomain;
 import com.fasterxml.jackson.annotation.JsonFormat;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializer;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,17 +36,6 @@ public class ErrorResponse {
         this.errors.add(new Error(domain, message));
     }
 
-    @Override
-    public String toString() {
-        Gson gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .registerTypeAdapter(LocalDateTime.class, (JsonSerializer<LocalDateTime>) (localDateTime, type, jsonSerializationContext)
-                        -> new JsonPrimitive(localDateTime.format(DateTimeFormatter.ofPattern("dd-MM-yyyy hh:mm:ss"))))
-                .create();
-
-        return gson.toJson(this);
-    }
-
     @Getter
     @Setter
     private static final class Error {
@@ -62,10 +46,5 @@ public class ErrorResponse {
             this.domain = domain;
             this.message = message;
         }
-
-        @Override
-        public String toString() {
-            return new Gson().toJson(this);
-        }
     }
 }
@@ -1,14 +1,9 @@
 package com.app.bootstrapbugz.error.exception;
 
 import com.app.bootstrapbugz.constant.ErrorDomain;
-import lombok.Getter;
-
-@Getter
-public class BadRequestException extends RuntimeException {
-    private final ErrorDomain domain;
 
+public class BadRequestException extends BusinessException {
     public BadRequestException(String message, ErrorDomain domain) {
-        super(message);
-        this.domain = domain;
+        super(message, domain);
     }
 }
@@ -0,0 +1,28 @@
+package com.app.bootstrapbugz.error.exception;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import lombok.Getter;
+
+/**
+ * Base class for expected failures that are turned into error responses. These are routine outcomes rather than
+ * bugs, so by default they skip filling in the stack trace; set {@code error.stack-traces=true} to get traces back.
+ */
+@Getter
+public abstract class BusinessException extends RuntimeException {
+    private static volatile boolean stackTraceEnabled;
+
+    private final ErrorDomain domain;
+
+    protected BusinessException(String message, ErrorDomain domain) {
+        super(message, null, false, stackTraceEnabled);
+        this.domain = domain;
+    }
+
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    public static void setStackTraceEnabled(boolean stackTraceEnabled) {
+        BusinessException.stackTraceEnabled = stackTraceEnabled;
+    }
+}
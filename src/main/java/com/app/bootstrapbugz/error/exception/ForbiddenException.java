@@ -1,14 +1,9 @@
 package com.app.bootstrapbugz.error.exception;
 
 import com.app.bootstrapbugz.constant.ErrorDomain;
-import lombok.Getter;
-
-@Getter
-public class ForbiddenException extends RuntimeException {
-    private final ErrorDomain domain;
 
+public class ForbiddenException extends BusinessException {
     public ForbiddenException(String message, ErrorDomain domain) {
-        super(message);
-        this.domain = domain;
+        super(message, domain);
     }
 }
@@ -1,6 +1,5 @@
 package com.app.bootstrapbugz.error.handling;
 
-import com.app.bootstrapbugz.dto.response.ErrorResponse;
 import com.app.bootstrapbugz.constant.ErrorDomain;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -15,17 +14,18 @@ import java.io.IOException;
 @Slf4j
 @Component
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
+    private final ErrorResponseWriter errorResponseWriter;
+    private final ErrorResponseWriter.ErrorBody forbidden;
+
+    public CustomAuthenticationEntryPoint(ErrorResponseWriter errorResponseWriter) {
+        this.errorResponseWriter = errorResponseWriter;
+        this.forbidden = errorResponseWriter.prepare(HttpStatus.FORBIDDEN, ErrorDomain.AUTH, HttpStatus.FORBIDDEN.getReasonPhrase());
+    }
+
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response, AuthenticationException e) {
         try {
-            final ErrorResponse errorResponse = new ErrorResponse(
-                    HttpStatus.FORBIDDEN,
-                    ErrorDomain.AUTH,
-                    HttpStatus.FORBIDDEN.getReasonPhrase()
-            );
-            response.setContentType("application/json");
-            response.setStatus(HttpStatus.FORBIDDEN.value());
-            response.getOutputStream().println(errorResponse.toString());
+            errorResponseWriter.write(response, forbidden);
         } catch (IOException ex) {
             log.error(ex.getMessage());
         }
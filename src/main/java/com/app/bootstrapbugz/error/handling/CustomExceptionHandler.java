@@ -3,14 +3,22 @@ package com.app.bootstrapbugz.error.handling;
 import com.app.bootstrapbugz.dto.response.ErrorResponse;
 import com.app.bootstrapbugz.constant.ErrorDomain;
 import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.app.bootstrapbugz.error.exception.BusinessException;
 import com.app.bootstrapbugz.error.exception.ForbiddenException;
 import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import com.app.bootstrapbugz.model.user.User;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
@@ -23,10 +31,17 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.Locale;
 import java.util.Objects;
 
 @ControllerAdvice
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
+    private final MessageSource messageSource;
+
+    public CustomExceptionHandler(MessageSource messageSource) {
+        this.messageSource = messageSource;
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(status);
@@ -40,6 +55,15 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponse, headers, status);
     }
 
+    @Override
+    protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof BusinessException)
+                return createErrorResponseEntity(((BusinessException) cause).getDomain(), cause.getMessage(), status);
+        }
+        return super.handleHttpMessageNotReadable(ex, headers, status, request);
+    }
+
     private ResponseEntity<Object> createErrorResponseEntity(ErrorDomain domain, String message, HttpStatus status) {
         ErrorResponse errorResponse = new ErrorResponse(status, domain, message);
         return new ResponseEntity<>(errorResponse, new HttpHeaders(), status);
@@ -60,6 +84,32 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
         return createErrorResponseEntity(ex.getDomain(), ex.getMessage(), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler({DataIntegrityViolationException.class})
+    public ResponseEntity<Object> dataIntegrityViolation(DataIntegrityViolationException ex) {
+        String constraintName = constraintName(ex);
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST);
+        if (constraintName.contains(User.USERNAME_CONSTRAINT))
+            errorResponse.addError("username", messageSource.getMessage("username.exists", null, LocaleContextHolder.getLocale()));
+        else if (constraintName.contains(User.EMAIL_CONSTRAINT))
+            errorResponse.addError("email", messageSource.getMessage("email.exists", null, LocaleContextHolder.getLocale()));
+        else
+            return exception(ex);
+        return new ResponseEntity<>(errorResponse, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
+    private String constraintName(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException && ((ConstraintViolationException) cause).getConstraintName() != null)
+                return ((ConstraintViolationException) cause).getConstraintName().toLowerCase(Locale.ROOT);
+        }
+        return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+    }
+
+    @ExceptionHandler({TaskRejectedException.class})
+    public ResponseEntity<Object> taskRejected() {
+        return createErrorResponseEntity(ErrorDomain.ADMIN, messageSource.getMessage("jobs.rejected", null, LocaleContextHolder.getLocale()), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler({JWTCreationException.class, JWTVerificationException.class, JWTDecodeException.class, IllegalArgumentException.class})
     public ResponseEntity<Object> jwt() {
         return createErrorResponseEntity(ErrorDomain.AUTH, HttpStatus.FORBIDDEN.getReasonPhrase(), HttpStatus.FORBIDDEN);
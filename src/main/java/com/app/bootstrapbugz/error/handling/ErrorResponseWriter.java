@@ -0,0 +1,73 @@
+package com.app.bootstrapbugz.error.handling;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.dto.response.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes {@link ErrorResponse} bodies from filters and entry points, outside of Spring MVC. Everything but the
+ * timestamp is rendered once per status, domain and message, so each response only formats the current time.
+ */
+@Component
+public class ErrorResponseWriter {
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy hh:mm:ss");
+    private static final byte[] TIMESTAMP_PREFIX = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, ErrorBody> bodies = new ConcurrentHashMap<>();
+
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ErrorBody prepare(HttpStatus status, ErrorDomain domain, String message) {
+        return bodies.computeIfAbsent(status.value() + ":" + domain.name() + ":" + message, key -> render(status, domain, message));
+    }
+
+    public void write(HttpServletResponse response, ErrorBody body) throws IOException {
+        byte[] timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER).getBytes(StandardCharsets.UTF_8);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(body.status);
+        response.setContentLength(TIMESTAMP_PREFIX.length + timestamp.length + body.tail.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(TIMESTAMP_PREFIX);
+        out.write(timestamp);
+        out.write(body.tail);
+    }
+
+    private ErrorBody render(HttpStatus status, ErrorDomain domain, String message) {
+        ObjectNode node = objectMapper.valueToTree(new ErrorResponse(status, domain, message));
+        node.remove("timestamp");
+        try {
+            String fields = objectMapper.writeValueAsString(node);
+            return new ErrorBody(status.value(), ("\"," + fields.substring(1)).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static final class ErrorBody {
+        private final int status;
+        private final byte[] tail;
+
+        private ErrorBody(int status, byte[] tail) {
+            this.status = status;
+            this.tail = tail;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.bootstrapbugz.event.relay;
+
+import com.app.bootstrapbugz.repository.email.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes sent and failed outbox rows once they are older than the retention period, so the table does not grow
+ * without limit and failed rows do not keep usable tokens around. Sent rows have their token cleared right away.
+ */
+@Slf4j
+@Component
+public class EmailOutboxPurge {
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final Duration retention;
+
+    public EmailOutboxPurge(EmailOutboxRepository emailOutboxRepository,
+                            @Value("${email.outbox.retention-hours}") long retentionHours) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms}", initialDelayString = "${email.outbox.initial-delay-ms}")
+    public void purge() {
+        int deleted = emailOutboxRepository.deleteFinishedCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0)
+            log.info("Purged {} finished outbox emails", deleted);
+    }
+}
@@ -0,0 +1,187 @@
+package com.app.bootstrapbugz.event.relay;
+
+import com.app.bootstrapbugz.constant.EmailOutboxStatus;
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.model.email.EmailOutbox;
+import com.app.bootstrapbugz.repository.email.EmailOutboxRepository;
+import com.app.bootstrapbugz.service.EmailService;
+import com.app.bootstrapbugz.service.EmailTemplateService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Sends emails written to the outbox. Rows are claimed in batches with a lease, so several instances can
+ * relay concurrently and rows claimed by a crashed instance are picked up again once the lease expires.
+ * Each claimed batch is sent over a single SMTP session. Only as many batches are claimed as there are free
+ * dispatch threads, so a claimed batch starts sending right away instead of waiting out its lease in a queue. While the mail circuit breaker is open nothing is claimed,
+ * and batches refused by the breaker are put back without using up an attempt.
+ */
+@Slf4j
+@Component
+public class EmailOutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final EmailTemplateService emailTemplateService;
+    private final TaskExecutor emailExecutor;
+    private final CircuitBreaker mailCircuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final double backoffJitter;
+    private final Duration claimTimeout;
+    private final Semaphore inFlightBatches;
+
+    public EmailOutboxRelay(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+                            EmailTemplateService emailTemplateService,
+                            @Qualifier("emailExecutor") TaskExecutor emailExecutor, CircuitBreaker mailCircuitBreaker,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${email.outbox.batch-size}") int batchSize,
+                            @Value("${email.outbox.max-attempts}") int maxAttempts,
+                            @Value("${email.outbox.backoff-ms}") long backoffMs,
+                            @Value("${email.outbox.max-backoff-ms}") long maxBackoffMs,
+                            @Value("${email.outbox.backoff-jitter}") double backoffJitter,
+                            @Value("${email.outbox.claim-timeout-ms}") long claimTimeoutMs,
+                            @Value("${email.dispatch.pool-size}") int maxInFlightBatches) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.emailTemplateService = emailTemplateService;
+        this.emailExecutor = emailExecutor;
+        this.mailCircuitBreaker = mailCircuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = Duration.ofMillis(backoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.backoffJitter = backoffJitter;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.inFlightBatches = new Semaphore(maxInFlightBatches);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms}", initialDelayString = "${email.outbox.initial-delay-ms}")
+    public void relay() {
+        if (mailCircuitBreaker.getState() == CircuitBreaker.State.OPEN)
+            return;
+        while (inFlightBatches.tryAcquire()) {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                inFlightBatches.release();
+                return;
+            }
+            if (!submit(batch) || batch.size() < batchSize)
+                return;
+        }
+    }
+
+    private boolean submit(List<EmailOutbox> batch) {
+        try {
+            emailExecutor.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    inFlightBatches.release();
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlightBatches.release();
+            transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.release(batch.get(0).getClaimToken()));
+            log.warn("Email executor rejected a batch of {}, released its claim", batch.size());
+            return false;
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty())
+                return Collections.emptyList();
+            String claimToken = UUID.randomUUID().toString();
+            emailOutboxRepository.claim(ids, claimToken, now.plus(claimTimeout), now);
+            return emailOutboxRepository.findAllByClaimToken(claimToken);
+        });
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        List<EmailDto> messages = batch.stream()
+                .map(email -> emailTemplateService.render(email.getPurpose(), email.getLocale() == null ? Locale.ROOT : Locale.forLanguageTag(email.getLocale()),
+                        email.getRecipient(), email.getToken()))
+                .collect(Collectors.toList());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<EmailDto, Exception> failures = emailService.sendEmails(messages);
+        sample.stop(meterRegistry.timer("email.send.batch"));
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < batch.size(); i++) {
+                EmailOutbox email = batch.get(i);
+                Exception failure = failures.get(messages.get(i));
+                int updated;
+                if (failure == null)
+                    updated = emailOutboxRepository.markSent(email.getId(), email.getClaimToken(), now);
+                else if (failure instanceof CallNotPermittedException)
+                    updated = emailOutboxRepository.markFailed(email.getId(), email.getClaimToken(), EmailOutboxStatus.PENDING,
+                            email.getAttempts(), now.plus(backoff(1)), email.getLastError());
+                else
+                    updated = markFailed(email, failure, now);
+                if (updated == 0)
+                    log.warn("Lease on {} email {} expired before its outcome was recorded", email.getPurpose(), email.getId());
+                meterRegistry.counter("email.send", "purpose", email.getPurpose().name(), "outcome", outcome(failure)).increment();
+            }
+        });
+    }
+
+    private int markFailed(EmailOutbox email, Exception e, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        EmailOutboxStatus status = attempts >= maxAttempts ? EmailOutboxStatus.FAILED : EmailOutboxStatus.PENDING;
+        log.warn("Sending {} email {} failed on attempt {}: {}", email.getPurpose(), email.getId(), attempts, e.getMessage());
+        String error = e.getMessage() == null || e.getMessage().length() <= MAX_ERROR_LENGTH
+                ? e.getMessage()
+                : e.getMessage().substring(0, MAX_ERROR_LENGTH);
+        return emailOutboxRepository.markFailed(email.getId(), email.getClaimToken(), status, attempts, now.plus(backoff(attempts)), error);
+    }
+
+    private static String outcome(Exception failure) {
+        if (failure == null)
+            return "success";
+        return failure instanceof CallNotPermittedException ? "not_permitted" : "failure";
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(maxBackoff) > 0)
+            delay = maxBackoff;
+        long jitterMs = (long) (delay.toMillis() * backoffJitter * ThreadLocalRandom.current().nextDouble());
+        return delay.plusMillis(jitterMs);
+    }
+}
@@ -2,6 +2,7 @@ package com.app.bootstrapbugz.hal.user;
 
 import com.app.bootstrapbugz.controller.UserController;
 import com.app.bootstrapbugz.dto.model.user.UserDto;
+import com.app.bootstrapbugz.metrics.RequestTimings;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -16,21 +17,25 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class UserDtoModelAssembler implements RepresentationModelAssembler<UserDto, UserDto> {
     @Override
     public UserDto toModel(UserDto user) {
-        user.add(linkTo(methodOn(UserController.class).findByUsername(user.getUsername())).withSelfRel());
-        user.add(linkTo(methodOn(UserController.class).findAll()).withRel("users"));
+        return RequestTimings.time(RequestTimings.HATEOAS, () -> {
+            user.add(linkTo(methodOn(UserController.class).findByUsername(user.getUsername())).withSelfRel());
+            user.add(linkTo(methodOn(UserController.class).findAll()).withRel("users"));
 
-        return user;
+            return user;
+        });
     }
 
     @Override
     public CollectionModel<UserDto> toCollectionModel(Iterable<? extends UserDto> entities) {
-        Collection<UserDto> users = new ArrayList<>();
-        entities.forEach(user -> {
-            user.add(linkTo(methodOn(UserController.class).findByUsername(user.getUsername())).withSelfRel());
-            users.add(user);
+        return RequestTimings.time(RequestTimings.HATEOAS, () -> {
+            Collection<UserDto> users = new ArrayList<>();
+            entities.forEach(user -> {
+                user.add(linkTo(methodOn(UserController.class).findByUsername(user.getUsername())).withSelfRel());
+                users.add(user);
+            });
+            CollectionModel<UserDto> models = new CollectionModel<>(users);
+            models.add(linkTo(methodOn(UserController.class).findAll()).withSelfRel());
+            return models;
         });
-        CollectionModel<UserDto> models = new CollectionModel<>(users);
-        models.add(linkTo(methodOn(UserController.class).findAll()).withSelfRel());
-        return models;
     }
 }
@@ -0,0 +1,121 @@
+package com.app.bootstrapbugz.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps connections so that every statement execution is timed. Executions are added to the current
+ * {@link QueryStats} and to the {@link RequestTimings#DB} phase. Statements slower than the threshold go to the
+ * {@code jdbc.slow-query} log, and a query that runs more than the allowed number of times in one request is
+ * reported once to the {@code jdbc.n-plus-one} log. Only SELECTs are checked for repeats, since chunked bulk
+ * updates and deletes repeat by design. Executions without SQL text, such as {@code Statement.executeBatch()}
+ * after {@code addBatch(sql)}, are recorded under {@value #BATCH}. Bind values are never logged.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+    public static final String BATCH = "<batch>";
+
+    private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger("jdbc.slow-query");
+    private static final Logger N_PLUS_ONE_LOG = LoggerFactory.getLogger("jdbc.n-plus-one");
+
+    private final long slowQueryNanos;
+    private final int repeatedStatementThreshold;
+
+    public InstrumentedDataSource(DataSource targetDataSource, long slowQueryMillis, int repeatedStatementThreshold) {
+        super(targetDataSource);
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private void record(String statementSql, long nanos) {
+        String sql = statementSql != null ? statementSql : BATCH;
+        RequestTimings.record(RequestTimings.DB, nanos);
+        if (nanos >= slowQueryNanos)
+            SLOW_QUERY_LOG.warn("{} ms: {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql);
+        QueryStats stats = QueryStats.current();
+        if (stats != null && stats.record(sql, nanos) == repeatedStatementThreshold + 1 && isQuery(sql))
+            N_PLUS_ONE_LOG.warn("Statement ran more than {} times in {}, likely N+1: {}", repeatedStatementThreshold, stats.getRequest(), sql);
+    }
+
+    private static boolean isQuery(String sql) {
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start)))
+            start++;
+        return sql.regionMatches(true, start, "select", 0, 6) || sql.regionMatches(true, start, "with", 0, 4);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                        new StatementHandler(result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Object target;
+        private final String preparedSql;
+
+        private StatementHandler(Object target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute"))
+                return InstrumentedDataSource.invoke(target, method, args);
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } finally {
+                String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : null;
+                record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
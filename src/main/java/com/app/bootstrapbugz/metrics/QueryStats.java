@@ -0,0 +1,95 @@
+package com.app.bootstrapbugz.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statement statistics for the request on the current thread, collected by {@link InstrumentedDataSource} between
+ * {@link #begin(String)} and {@link #end()}. Statements are grouped by their SQL, which for prepared statements is the
+ * shape with placeholders. Stats may be nested, e.g. a test wrapping a request; statements then count towards every
+ * open level.
+ */
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private final QueryStats parent;
+    private final Map<String, int[]> executions = new LinkedHashMap<>();
+    private int count;
+    private long totalNanos;
+    private String slowestSql;
+    private long slowestNanos;
+
+    private QueryStats(String request, QueryStats parent) {
+        this.request = request;
+        this.parent = parent;
+    }
+
+    public static QueryStats begin(String request) {
+        QueryStats stats = new QueryStats(request, CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null && stats.parent != null)
+            CURRENT.set(stats.parent);
+        else
+            CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns how many times this SQL has now run in the request.
+     */
+    int record(String sql, long nanos) {
+        if (parent != null)
+            parent.record(sql, nanos);
+        count++;
+        totalNanos += nanos;
+        if (nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+        return ++executions.computeIfAbsent(sql, key -> new int[1])[0];
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public String getSlowestSql() {
+        return slowestSql;
+    }
+
+    public long getSlowestNanos() {
+        return slowestNanos;
+    }
+
+    public int getExecutions(String sql) {
+        int[] executed = executions.get(sql);
+        return executed == null ? 0 : executed[0];
+    }
+
+    /**
+     * Returns the number of executions per SQL, in the order the statements first ran.
+     */
+    public Map<String, Integer> getExecutions() {
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        executions.forEach((sql, executed) -> snapshot.put(sql, executed[0]));
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
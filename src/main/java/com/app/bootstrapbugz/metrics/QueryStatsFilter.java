@@ -0,0 +1,30 @@
+package com.app.bootstrapbugz.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scopes {@link QueryStats} to a request and logs a summary of its statements at debug level.
+ */
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStats.end();
+            if (log.isDebugEnabled() && stats.getCount() > 0)
+                log.debug("queries request=\"{}\" count={} total_ms={} slowest_ms={} slowest_sql={}", stats.getRequest(), stats.getCount(), TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()),
+                        TimeUnit.NANOSECONDS.toMillis(stats.getSlowestNanos()), stats.getSlowestSql());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.app.bootstrapbugz.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call on the Spring Data repository proxies as {@code repository.invocations}, tagged with the
+ * repository interface, the method and the exception thrown, if any. Timers are registered once per method and
+ * outcome and cached, and the registry is looked up on first use so that it is not created before its own
+ * post-processors.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository) || !(bean instanceof Advised))
+            return bean;
+        Advised advised = (Advised) bean;
+        String repository = Arrays.stream(advised.getProxiedInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(beanName);
+        Map<Method, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+        advised.addAdvice(0, (MethodInterceptor) invocation -> {
+            long start = System.nanoTime();
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                timer(timers, repository, invocation.getMethod(), exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+        return bean;
+    }
+
+    private Timer timer(Map<Method, Map<String, Timer>> timers, String repository, Method method, String exception) {
+        Map<String, Timer> byException = timers.get(method);
+        if (byException == null)
+            byException = timers.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        Timer timer = byException.get(exception);
+        if (timer == null)
+            timer = byException.computeIfAbsent(exception, key -> Timer.builder("repository.invocations")
+                    .tag("repository", repository)
+                    .tag("method", method.getName())
+                    .tag("exception", key)
+                    .register(meterRegistry.getObject()));
+        return timer;
+    }
+}
@@ -0,0 +1,131 @@
+package com.app.bootstrapbugz.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-request phase durations, kept in a thread local by {@link ServerTimingFilter}. Every method is a no-op when
+ * no request is being timed, so instrumented code pays a single thread-local read.
+ */
+public final class RequestTimings {
+    public static final String JWT = "jwt";
+    public static final String USER = "user";
+    public static final String PASSWORD = "password";
+    public static final String HANDLER = "handler";
+    public static final String MAPPING = "mapping";
+    public static final String HATEOAS = "hateoas";
+    public static final String SERIALIZATION = "serialization";
+    public static final String DB = "db";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T time(String phase, Supplier<T> supplier) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null)
+            return supplier.get();
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            timings.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void run(String phase, Runnable runnable) {
+        time(phase, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public static void record(String phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null)
+            timings.add(phase, nanos);
+    }
+
+    public static void begin(String phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null)
+            timings.phases.computeIfAbsent(phase, key -> new Phase()).openedAt = System.nanoTime();
+    }
+
+    public static void end(String phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null)
+            return;
+        Phase open = timings.phases.get(phase);
+        if (open != null && open.openedAt != 0) {
+            timings.add(phase, System.nanoTime() - open.openedAt);
+            open.openedAt = 0;
+        }
+    }
+
+    private void add(String phase, long nanos) {
+        Phase entry = phases.computeIfAbsent(phase, key -> new Phase());
+        entry.nanos += nanos;
+        entry.count++;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    /**
+     * Formats the phases as a Server-Timing header value. Phases overlap: db and user time are also part of
+     * whichever phase issued them.
+     */
+    String toHeader() {
+        StringBuilder header = new StringBuilder();
+        phases.forEach((name, phase) -> {
+            header.append(name).append(";dur=").append(millis(phase.nanos));
+            if (DB.equals(name))
+                header.append(";desc=\"").append(phase.count).append(" queries\"");
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(millis(elapsedNanos())).toString();
+    }
+
+    String toLogFields() {
+        StringBuilder fields = new StringBuilder();
+        phases.forEach((name, phase) -> {
+            fields.append(' ').append(name).append("_ms=").append(millis(phase.nanos));
+            if (DB.equals(name))
+                fields.append(" db_count=").append(phase.count);
+        });
+        return fields.append(" total_ms=").append(millis(elapsedNanos())).toString();
+    }
+
+    int count(String phase) {
+        Phase entry = phases.get(phase);
+        return entry == null ? 0 : entry.count;
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0);
+    }
+
+    private static final class Phase {
+        private long nanos;
+        private int count;
+        private long openedAt;
+    }
+}
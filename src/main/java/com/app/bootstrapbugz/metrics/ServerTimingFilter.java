@@ -0,0 +1,37 @@
+package com.app.bootstrapbugz.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Collects {@link RequestTimings} for the request and reports them in a Server-Timing header and a log line.
+ * The body is buffered so that the header can still be set once serialization has been timed.
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        RequestTimings timings = RequestTimings.start();
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            RequestTimings.end(RequestTimings.HANDLER);
+            RequestTimings.end(RequestTimings.SERIALIZATION);
+            RequestTimings.clear();
+            wrapper.setHeader(HEADER, timings.toHeader());
+            log.info("server-timing method={} uri={} status={}{}", request.getMethod(), request.getRequestURI(),
+                    wrapper.getStatus(), timings.toLogFields());
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.app.bootstrapbugz.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Splits the time spent in Spring MVC into the handler call and writing the response body. Like
+ * {@link com.app.bootstrapbugz.config.ServerTimingConfig}, it only exists when {@code server-timing.enabled=true},
+ * so the response body advice is not applied otherwise.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true")
+public class ServerTimingInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings.begin(RequestTimings.HANDLER);
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimings.end(RequestTimings.HANDLER);
+        RequestTimings.begin(RequestTimings.SERIALIZATION);
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestTimings.end(RequestTimings.HANDLER);
+        RequestTimings.end(RequestTimings.SERIALIZATION);
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.bootstrapbugz.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the wrapped encoder spends hashing and checking passwords, which dominates login and
+ * sign-up latency with BCrypt.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = meterRegistry.timer("password.encoder", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("password.encoder", "operation", "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            record(encodeTimer, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            record(matchesTimer, System.nanoTime() - start);
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        RequestTimings.record(RequestTimings.PASSWORD, nanos);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.bootstrapbugz.model.email;
+
+import com.app.bootstrapbugz.constant.EmailOutboxStatus;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt_at", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_email_outbox_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@Accessors(chain = true)
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    @Column(name = "email_outbox_id")
+    private Long id;
+
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    private JwtPurpose purpose;
+
+    @Column(length = 1024)
+    private String token;
+
+    @Column(length = 35)
+    private String locale;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", columnDefinition = "TIMESTAMP (6)")
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "claim_token")
+    private String claimToken;
+
+    @Column(columnDefinition = "TIMESTAMP (6)")
+    private LocalDateTime claimedUntil;
+
+    @Column(columnDefinition = "TIMESTAMP (6)")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(columnDefinition = "TIMESTAMP (6)")
+    private LocalDateTime sentAt;
+
+    private String lastError;
+
+    public EmailOutbox(String recipient, JwtPurpose purpose, String token, Locale locale) {
+        this.recipient = recipient;
+        this.purpose = purpose;
+        this.token = token;
+        this.locale = locale.toLanguageTag();
+    }
+}
@@ -1,9 +1,11 @@
 package com.app.bootstrapbugz.model.user;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -14,20 +16,33 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "normalized_username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "normalized_email")
+})
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
 @Accessors(chain = true)
 public class User {
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", initialValue = 100, allocationSize = 50)
     @Column(name = "user_id")
     private Long id;
 
@@ -35,12 +50,18 @@ public class User {
 
     private String lastName;
 
-    @Column(unique = true)
     private String username;
 
-    @Column(unique = true)
     private String email;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_username")
+    private String normalizedUsername;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "normalized_email")
+    private String normalizedEmail;
+
     private String password;
 
     @Column(columnDefinition = "TIMESTAMP (6)")
@@ -59,6 +80,17 @@ public class User {
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void updateNormalizedColumns() {
+        this.normalizedUsername = normalize(username);
+        this.normalizedEmail = normalize(email);
+    }
+
     public void addRole(Role role) {
         this.roles.add(role);
     }
@@ -0,0 +1,43 @@
+package com.app.bootstrapbugz.repository.email;
+
+import com.app.bootstrapbugz.constant.EmailOutboxStatus;
+import com.app.bootstrapbugz.model.email.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+            "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(EmailOutboxStatus status, LocalDateTime now, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.claimToken = :claimToken, e.claimedUntil = :claimedUntil " +
+            "WHERE e.id IN (:ids) AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)")
+    int claim(List<Long> ids, String claimToken, LocalDateTime claimedUntil, LocalDateTime now);
+
+    List<EmailOutbox> findAllByClaimToken(String claimToken);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.claimToken = NULL, e.claimedUntil = NULL WHERE e.claimToken = :claimToken")
+    int release(String claimToken);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = com.app.bootstrapbugz.constant.EmailOutboxStatus.SENT, e.sentAt = :sentAt, " +
+            "e.attempts = e.attempts + 1, e.token = NULL, e.claimToken = NULL, e.claimedUntil = NULL WHERE e.id = :id AND e.claimToken = :claimToken")
+    int markSent(Long id, String claimToken, LocalDateTime sentAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :lastError, e.claimToken = NULL, e.claimedUntil = NULL WHERE e.id = :id AND e.claimToken = :claimToken")
+    int markFailed(Long id, String claimToken, EmailOutboxStatus status, int attempts, LocalDateTime nextAttemptAt, String lastError);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM EmailOutbox e WHERE e.status <> com.app.bootstrapbugz.constant.EmailOutboxStatus.PENDING " +
+            "AND e.createdAt < :createdBefore")
+    int deleteFinishedCreatedBefore(LocalDateTime createdBefore);
+}
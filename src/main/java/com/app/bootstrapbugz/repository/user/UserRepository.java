@@ -1,13 +1,20 @@
 package com.app.bootstrapbugz.repository.user;
 
 import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.util.ChunkUtilities;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 
 import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     @QueryHints(
@@ -19,16 +26,102 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @QueryHints(
             @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")
     )
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username IN (:usernames)")
-    List<User> findAllByUsernameIn(List<String> usernames);
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.normalizedUsername IN (:normalizedUsernames)")
+    List<User> findAllByNormalizedUsernameIn(List<String> normalizedUsernames);
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
-    Optional<User> findByEmail(String email);
+    default List<User> findAllByUsernameInChunks(List<String> usernames) {
+        List<User> users = new ArrayList<>();
+        for (List<String> chunk : ChunkUtilities.partition(normalize(usernames), ChunkUtilities.IN_CLAUSE_LIMIT))
+            users.addAll(findAllByNormalizedUsernameIn(chunk));
+        return users;
+    }
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
-    Optional<User> findByUsername(String username);
+    @Query("SELECT u.normalizedUsername FROM User u WHERE u.normalizedUsername IN (:normalizedUsernames)")
+    List<String> findNormalizedUsernamesIn(List<String> normalizedUsernames);
 
-    boolean existsByEmail(String email);
+    default List<String> findUsernamesByUsernameInChunks(List<String> usernames) {
+        List<String> existing = new ArrayList<>();
+        for (List<String> chunk : ChunkUtilities.partition(normalize(usernames), ChunkUtilities.IN_CLAUSE_LIMIT))
+            existing.addAll(findNormalizedUsernamesIn(chunk));
+        return existing;
+    }
 
-    boolean existsByUsername(String username);
+    @Query("SELECT u.normalizedEmail FROM User u WHERE u.normalizedEmail IN (:normalizedEmails)")
+    List<String> findNormalizedEmailsIn(List<String> normalizedEmails);
+
+    default List<String> findEmailsByEmailInChunks(List<String> emails) {
+        List<String> existing = new ArrayList<>();
+        for (List<String> chunk : ChunkUtilities.partition(normalize(emails), ChunkUtilities.IN_CLAUSE_LIMIT))
+            existing.addAll(findNormalizedEmailsIn(chunk));
+        return existing;
+    }
+
+    static List<String> normalize(Collection<String> values) {
+        return ChunkUtilities.distinct(values.stream().map(User::normalize).collect(Collectors.toList()));
+    }
+
+    @QueryHints(
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000")
+    )
+    @Query("SELECT u.username, u.email FROM User u")
+    Stream<Object[]> streamUsernamesAndEmails();
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.normalizedEmail = :normalizedEmail")
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+
+    default Optional<User> findByEmail(String email) {
+        return findByNormalizedEmail(User.normalize(email));
+    }
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.normalizedUsername = :normalizedUsername")
+    Optional<User> findByNormalizedUsername(String normalizedUsername);
+
+    default Optional<User> findByUsername(String username) {
+        return findByNormalizedUsername(User.normalize(username));
+    }
+
+    boolean existsByNormalizedEmail(String normalizedEmail);
+
+    default boolean existsByEmail(String email) {
+        return existsByNormalizedEmail(User.normalize(email));
+    }
+
+    boolean existsByNormalizedUsername(String normalizedUsername);
+
+    default boolean existsByUsername(String username) {
+        return existsByNormalizedUsername(User.normalize(username));
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.logoutFromAllDevicesAt = :logoutFromAllDevicesAt WHERE u.normalizedUsername IN (:usernames)")
+    int updateLogoutFromAllDevicesAtByUsernameIn(List<String> usernames, LocalDateTime logoutFromAllDevicesAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.nonLocked = :nonLocked, u.updatedAt = :updatedAt WHERE u.normalizedUsername IN (:usernames)")
+    int updateNonLockedByUsernameIn(List<String> usernames, boolean nonLocked, LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.activated = :activated, u.updatedAt = :updatedAt WHERE u.normalizedUsername IN (:usernames)")
+    int updateActivatedByUsernameIn(List<String> usernames, boolean activated, LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.updatedAt = :updatedAt WHERE u.normalizedUsername IN (:usernames)")
+    int updateUpdatedAtByUsernameIn(List<String> usernames, LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (SELECT u.user_id FROM users u WHERE u.normalized_username IN (:usernames))",
+            nativeQuery = true)
+    int deleteRolesByUsernameIn(List<String> usernames);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) " +
+            "SELECT u.user_id, r.role_id FROM users u CROSS JOIN roles r " +
+            "WHERE u.normalized_username IN (:usernames) AND r.role_id IN (:roleIds)",
+            nativeQuery = true)
+    int insertRolesByUsernameIn(List<String> usernames, Collection<Long> roleIds);
+
+    // Hibernate deletes the matching user_roles rows first, as User owns the join table
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.normalizedUsername IN (:usernames)")
+    int deleteByUsernameIn(List<String> usernames);
 }
@@ -6,6 +6,7 @@ import com.app.bootstrapbugz.error.exception.ResourceNotFound;
 import com.app.bootstrapbugz.error.handling.CustomFilterExceptionHandler;
 import com.app.bootstrapbugz.security.user.UserPrincipal;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -22,37 +23,63 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
     private final JwtUtilities jwtUtilities;
     private final AuthenticationManager authenticationManager;
     private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+    private final CustomFilterExceptionHandler customFilterExceptionHandler;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtUtilities jwtUtilities,
-                                   MessageSource messageSource) {
+                                   MessageSource messageSource, ObjectMapper objectMapper,
+                                   CustomFilterExceptionHandler customFilterExceptionHandler, MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtilities = jwtUtilities;
         this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+        this.customFilterExceptionHandler = customFilterExceptionHandler;
+        this.meterRegistry = meterRegistry;
         this.setFilterProcessesUrl("/api/auth/login");
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) {
+        long start = System.nanoTime();
         try {
-            LoginRequest loginRequest = new ObjectMapper().readValue(request.getInputStream(), LoginRequest.class);
+            LoginRequest loginRequest = objectMapper.readValue(request.getInputStream(), LoginRequest.class);
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                     loginRequest.getUsername(),
                     loginRequest.getPassword(),
                     new ArrayList<>()
             );
-            return authenticationManager.authenticate(authenticationToken);
+            Authentication authentication = authenticationManager.authenticate(authenticationToken);
+            recordLogin("success", start);
+            return authentication;
         } catch (IOException | AuthenticationException | ResourceNotFound e) {
-            CustomFilterExceptionHandler.handleException(response, getMessageBasedOnException(e));
+            recordLogin(getOutcomeBasedOnException(e), start);
+            customFilterExceptionHandler.handleException(response, getMessageBasedOnException(e));
         }
         return null;
     }
 
+    private void recordLogin(String outcome, long start) {
+        meterRegistry.timer("auth.login", "outcome", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String getOutcomeBasedOnException(Exception e) {
+        if (e instanceof DisabledException)
+            return "not_activated";
+        else if (e instanceof LockedException)
+            return "locked";
+        else if (e instanceof IOException)
+            return "bad_request";
+        return "bad_credentials";
+    }
+
     private String getMessageBasedOnException(Exception e) {
         String errorMessage;
         if (e instanceof DisabledException)
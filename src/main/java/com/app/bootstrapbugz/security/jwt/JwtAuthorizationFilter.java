@@ -2,8 +2,10 @@ package com.app.bootstrapbugz.security.jwt;
 
 import com.app.bootstrapbugz.constant.JwtPurpose;
 import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import com.app.bootstrapbugz.metrics.RequestTimings;
 import com.app.bootstrapbugz.security.user.UserPrincipal;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,17 +19,21 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
     private final JwtUtilities jwtUtilities;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthorizationFilter(AuthenticationManager authenticationManager, JwtUtilities  jwtUtilities,
-                                  @Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService) {
+                                  @Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService,
+                                  MeterRegistry meterRegistry) {
         super(authenticationManager);
         this.jwtUtilities = jwtUtilities;
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -37,20 +43,24 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
             chain.doFilter(request, response);
             return;
         }
+        long start = System.nanoTime();
+        String outcome = "rejected";
         try {
             UsernamePasswordAuthenticationToken authenticationToken = getAuthenticationToken(token);
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            outcome = "authenticated";
         } catch (ResourceNotFound | JWTVerificationException | IllegalArgumentException e) {
             log.error(e.getMessage());
         } finally {
+            meterRegistry.timer("auth.authorization", "outcome", outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             chain.doFilter(request, response);
         }
     }
 
     private UsernamePasswordAuthenticationToken getAuthenticationToken(String token) throws ResourceNotFound, JWTVerificationException, IllegalArgumentException {
-        String username = jwtUtilities.getSubject(token);
-        UserPrincipal userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(username);
-        jwtUtilities.checkToken(token, userPrincipal, JwtPurpose.ACCESSING_RESOURCES);
+        String username = RequestTimings.time(RequestTimings.JWT, () -> jwtUtilities.getSubject(token));
+        UserPrincipal userPrincipal = RequestTimings.time(RequestTimings.USER, () -> (UserPrincipal) userDetailsService.loadUserByUsername(username));
+        RequestTimings.run(RequestTimings.JWT, () -> jwtUtilities.checkToken(token, userPrincipal, JwtPurpose.ACCESSING_RESOURCES));
 
         return new UsernamePasswordAuthenticationToken(userPrincipal.getUsername(), null, userPrincipal.getAuthorities());
     }
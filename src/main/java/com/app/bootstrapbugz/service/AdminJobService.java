@@ -0,0 +1,17 @@
+package com.app.bootstrapbugz.service;
+
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.dto.model.admin.AdminJobDto;
+import com.app.bootstrapbugz.dto.request.admin.AdminJobRequest;
+
+import java.io.InputStream;
+
+public interface AdminJobService {
+    AdminJobDto submit(AdminJobRequest adminJobRequest);
+
+    AdminJobDto submitImport(InputStream inputStream, ImportFormat format, boolean sendEmails);
+
+    AdminJobDto findById(String id);
+
+    AdminJobDto findById(String id, int page, int size);
+}
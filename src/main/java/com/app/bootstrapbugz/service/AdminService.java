@@ -4,17 +4,17 @@ import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
 import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
 
 public interface AdminService {
-    void logoutUsersFromAllDevices(AdminRequest adminRequest);
+    int logoutUsersFromAllDevices(AdminRequest adminRequest);
 
-    void changeUsersRole(ChangeRoleRequest changeRoleRequest);
+    int changeUsersRole(ChangeRoleRequest changeRoleRequest);
 
-    void lockUsers(AdminRequest adminRequest);
+    int lockUsers(AdminRequest adminRequest);
 
-    void unlockUsers(AdminRequest adminRequest);
+    int unlockUsers(AdminRequest adminRequest);
 
-    void activateUser(AdminRequest adminRequest);
+    int activateUser(AdminRequest adminRequest);
 
-    void deactivateUser(AdminRequest adminRequest);
+    int deactivateUser(AdminRequest adminRequest);
 
-    void deleteUsers(AdminRequest adminRequest);
+    int deleteUsers(AdminRequest adminRequest);
 }
@@ -1,5 +1,12 @@
 package com.app.bootstrapbugz.service;
 
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+
+import java.util.List;
+import java.util.Map;
+
 public interface EmailService {
     void sendEmail(String to, String subject, String body);
+
+    Map<EmailDto, Exception> sendEmails(List<EmailDto> emails);
 }
@@ -0,0 +1,10 @@
+package com.app.bootstrapbugz.service;
+
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+
+import java.util.Locale;
+
+public interface EmailTemplateService {
+    EmailDto render(JwtPurpose purpose, Locale locale, String to, String token);
+}
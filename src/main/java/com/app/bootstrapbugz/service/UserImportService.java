@@ -0,0 +1,10 @@
+package com.app.bootstrapbugz.service;
+
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.dto.model.admin.UserImportResultDto;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+    UserImportResultDto importUsers(InputStream inputStream, ImportFormat format, boolean sendEmails);
+}
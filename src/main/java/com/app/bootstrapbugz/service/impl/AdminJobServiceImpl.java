@@ -0,0 +1,280 @@
+package com.app.bootstrapbugz.service.impl;
+
+import com.app.bootstrapbugz.constant.AdminOperation;
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.constant.JobOutcome;
+import com.app.bootstrapbugz.constant.JobStatus;
+import com.app.bootstrapbugz.dto.model.admin.AdminJobDto;
+import com.app.bootstrapbugz.dto.model.admin.UserImportResultDto;
+import com.app.bootstrapbugz.dto.request.admin.AdminJobRequest;
+import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
+import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
+import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.service.AdminJobService;
+import com.app.bootstrapbugz.service.AdminService;
+import com.app.bootstrapbugz.service.UserImportService;
+import com.app.bootstrapbugz.util.ChunkUtilities;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class AdminJobServiceImpl implements AdminJobService {
+    private static final int MAX_OUTCOMES_PAGE_SIZE = 1000;
+
+    private final AdminService adminService;
+    private final UserImportService userImportService;
+    private final UserRepository userRepository;
+    private final TaskExecutor adminJobExecutor;
+    private final MessageSource messageSource;
+    private final int chunkSize;
+    private final long retentionMinutes;
+    private final Map<String, AdminJob> jobs = new ConcurrentHashMap<>();
+
+    public AdminJobServiceImpl(AdminService adminService, UserImportService userImportService, UserRepository userRepository,
+                               @Qualifier("adminJobExecutor") TaskExecutor adminJobExecutor, MessageSource messageSource,
+                               @Value("${admin.jobs.chunk-size}") int chunkSize,
+                               @Value("${admin.jobs.retention-minutes}") long retentionMinutes) {
+        this.adminService = adminService;
+        this.userImportService = userImportService;
+        this.userRepository = userRepository;
+        this.adminJobExecutor = adminJobExecutor;
+        this.messageSource = messageSource;
+        this.chunkSize = chunkSize;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    @Override
+    public AdminJobDto submit(AdminJobRequest adminJobRequest) {
+        if (adminJobRequest.getOperation() == AdminOperation.CHANGE_ROLE
+                && (adminJobRequest.getRoleNames() == null || adminJobRequest.getRoleNames().isEmpty()))
+            throw new BadRequestException(messageSource.getMessage("roles.notEmpty", null, LocaleContextHolder.getLocale()), ErrorDomain.ADMIN);
+        if (adminJobRequest.getOperation() == AdminOperation.IMPORT)
+            throw new BadRequestException(messageSource.getMessage("operation.import", null, LocaleContextHolder.getLocale()), ErrorDomain.ADMIN);
+        removeExpiredJobs();
+
+        AdminJob job = new AdminJob(adminJobRequest);
+        jobs.put(job.id, job);
+        try {
+            adminJobExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Copies the upload to a temporary file before returning, since the request body is gone once the 202 is sent,
+     * and imports it on the job executor so parsing and password hashing do not hold the request thread.
+     */
+    @Override
+    public AdminJobDto submitImport(InputStream inputStream, ImportFormat format, boolean sendEmails) {
+        removeExpiredJobs();
+        Path upload = spool(inputStream);
+        AdminJob job = new AdminJob(AdminOperation.IMPORT, Collections.emptyList(), null);
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        jobs.put(job.id, job);
+        try {
+            adminJobExecutor.execute(() -> runImport(job, upload, format, sendEmails, localeContext));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            delete(upload);
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    @Override
+    public AdminJobDto findById(String id) {
+        return findJob(id).toDto();
+    }
+
+    /**
+     * Same as {@link #findById(String)} plus the outcomes of one page of the submitted usernames, in submission
+     * order. Jobs can cover up to the request cap of usernames, so outcomes are never returned all at once.
+     */
+    @Override
+    public AdminJobDto findById(String id, int page, int size) {
+        AdminJob job = findJob(id);
+        int pageSize = Math.min(Math.max(size, 1), MAX_OUTCOMES_PAGE_SIZE);
+        int from = (int) Math.min((long) Math.max(page, 0) * pageSize, job.usernames.size());
+        int to = Math.min(from + pageSize, job.usernames.size());
+        Map<String, JobOutcome> outcomes = new LinkedHashMap<>();
+        job.usernames.subList(from, to).forEach(username -> {
+            JobOutcome outcome = job.outcomes.get(username);
+            if (outcome != null)
+                outcomes.put(username, outcome);
+        });
+        AdminJobDto dto = job.toDto();
+        dto.setOutcomes(outcomes);
+        return dto;
+    }
+
+    private AdminJob findJob(String id) {
+        AdminJob job = jobs.get(id);
+        if (job == null)
+            throw new ResourceNotFound(messageSource.getMessage("job.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.ADMIN);
+        return job;
+    }
+
+    private void run(AdminJob job) {
+        job.status = JobStatus.RUNNING;
+        for (List<String> chunk : ChunkUtilities.partition(job.usernames, chunkSize)) {
+            try {
+                Set<String> existing = new HashSet<>(userRepository.findNormalizedUsernamesIn(UserRepository.normalize(chunk)));
+                job.affected += apply(job.request, chunk);
+                int notFound = 0;
+                for (String username : chunk) {
+                    boolean found = existing.contains(User.normalize(username));
+                    job.outcomes.put(username, found ? JobOutcome.PROCESSED : JobOutcome.NOT_FOUND);
+                    if (!found)
+                        notFound++;
+                }
+                job.notFound += notFound;
+            } catch (RuntimeException e) {
+                log.error("Admin job {} failed on chunk starting with {}: {}", job.id, chunk.get(0), e.getMessage());
+                chunk.forEach(username -> job.outcomes.put(username, JobOutcome.FAILED));
+                job.failedUsernames += chunk.size();
+                job.failed = true;
+            }
+            job.processed += chunk.size();
+        }
+        job.status = job.failed ? JobStatus.FAILED : JobStatus.COMPLETED;
+        job.finishedAt = LocalDateTime.now();
+    }
+
+    private void runImport(AdminJob job, Path upload, ImportFormat format, boolean sendEmails, LocaleContext localeContext) {
+        job.status = JobStatus.RUNNING;
+        LocaleContext previous = LocaleContextHolder.getLocaleContext();
+        LocaleContextHolder.setLocaleContext(localeContext);
+        try (InputStream inputStream = Files.newInputStream(upload)) {
+            UserImportResultDto result = userImportService.importUsers(inputStream, format, sendEmails);
+            job.result = result;
+            job.total = result.getTotal();
+            job.processed = result.getTotal();
+            job.affected = result.getImported();
+            job.failedUsernames = result.getFailed();
+        } catch (IOException | RuntimeException e) {
+            log.error("Admin job {} failed to import users: {}", job.id, e.getMessage());
+            job.error = e.getMessage();
+            job.failed = true;
+        } finally {
+            LocaleContextHolder.setLocaleContext(previous);
+            delete(upload);
+        }
+        job.status = job.failed ? JobStatus.FAILED : JobStatus.COMPLETED;
+        job.finishedAt = LocalDateTime.now();
+    }
+
+    private static Path spool(InputStream inputStream) {
+        try {
+            Path upload = Files.createTempFile("user-import-", ".tmp");
+            try {
+                Files.copy(inputStream, upload, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                delete(upload);
+                throw e;
+            }
+            return upload;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException e) {
+            log.warn("Could not delete import upload {}: {}", upload, e.getMessage());
+        }
+    }
+
+    private int apply(AdminJobRequest request, List<String> usernames) {
+        AdminRequest adminRequest = new AdminRequest(usernames);
+        switch (request.getOperation()) {
+            case LOGOUT:
+                return adminService.logoutUsersFromAllDevices(adminRequest);
+            case CHANGE_ROLE:
+                return adminService.changeUsersRole(new ChangeRoleRequest(usernames, request.getRoleNames()));
+            case LOCK:
+                return adminService.lockUsers(adminRequest);
+            case UNLOCK:
+                return adminService.unlockUsers(adminRequest);
+            case ACTIVATE:
+                return adminService.activateUser(adminRequest);
+            case DEACTIVATE:
+                return adminService.deactivateUser(adminRequest);
+            case DELETE:
+                return adminService.deleteUsers(adminRequest);
+            default:
+                throw new IllegalStateException("Unsupported operation " + request.getOperation());
+        }
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expiredBefore));
+    }
+
+    private static final class AdminJob {
+        private final String id = UUID.randomUUID().toString();
+        private final AdminOperation operation;
+        private final List<String> usernames;
+        private final AdminJobRequest request;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final Map<String, JobOutcome> outcomes = new ConcurrentHashMap<>();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile int total;
+        private volatile int processed;
+        private volatile int affected;
+        private volatile int notFound;
+        private volatile int failedUsernames;
+        private volatile boolean failed;
+        private volatile String error;
+        private volatile UserImportResultDto result;
+        private volatile LocalDateTime finishedAt;
+
+        private AdminJob(AdminJobRequest request) {
+            this(request.getOperation(), ChunkUtilities.distinct(request.getUsernames()), request);
+        }
+
+        private AdminJob(AdminOperation operation, List<String> usernames, AdminJobRequest request) {
+            this.operation = operation;
+            this.usernames = usernames;
+            this.request = request;
+            this.total = usernames.size();
+        }
+
+        private AdminJobDto toDto() {
+            return new AdminJobDto(id, operation, status, total, processed, affected, notFound, failedUsernames,
+                    createdAt, finishedAt, null, error, result);
+        }
+    }
+}
@@ -3,14 +3,18 @@ package com.app.bootstrapbugz.service.impl;
 import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
 import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
 import com.app.bootstrapbugz.model.user.Role;
-import com.app.bootstrapbugz.model.user.User;
 import com.app.bootstrapbugz.repository.user.RoleRepository;
 import com.app.bootstrapbugz.repository.user.UserRepository;
 import com.app.bootstrapbugz.service.AdminService;
+import com.app.bootstrapbugz.util.ChunkUtilities;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 @Service
 public class AdminServiceImpl implements AdminService {
@@ -23,66 +27,70 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    public void logoutUsersFromAllDevices(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        users.forEach(User::updateLogoutFromAllDevicesAt);
-        userRepository.saveAll(users);
+    @Transactional
+    public int logoutUsersFromAllDevices(AdminRequest adminRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(adminRequest.getUsernames(),
+                usernames -> userRepository.updateLogoutFromAllDevicesAtByUsernameIn(usernames, now));
     }
 
     @Override
-    public void changeUsersRole(ChangeRoleRequest changeRoleRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(changeRoleRequest.getUsernames());
-        users.forEach(user -> {
-            List<Role> roles = roleRepository.findAllByNameIn(changeRoleRequest.getRoleNames());
-            user.setRoles(new HashSet<>(roles));
-            user.updateUpdatedAt();
+    @Transactional
+    public int changeUsersRole(ChangeRoleRequest changeRoleRequest) {
+        Set<Long> roleIds = roleRepository.findAllByNameIn(changeRoleRequest.getRoleNames()).stream()
+                .map(Role::getId)
+                .collect(Collectors.toSet());
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(changeRoleRequest.getUsernames(), usernames -> {
+            userRepository.deleteRolesByUsernameIn(usernames);
+            if (!roleIds.isEmpty())
+                userRepository.insertRolesByUsernameIn(usernames, roleIds);
+            return userRepository.updateUpdatedAtByUsernameIn(usernames, now);
         });
-        userRepository.saveAll(users);
     }
 
     @Override
-    public void lockUsers(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        users.forEach(user -> {
-            user.setNonLocked(false);
-            user.updateUpdatedAt();
-        });
-        userRepository.saveAll(users);
+    @Transactional
+    public int lockUsers(AdminRequest adminRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(adminRequest.getUsernames(),
+                usernames -> userRepository.updateNonLockedByUsernameIn(usernames, false, now));
     }
 
     @Override
-    public void unlockUsers(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        users.forEach(user -> {
-            user.setNonLocked(true);
-            user.updateUpdatedAt();
-        });
-        userRepository.saveAll(users);
+    @Transactional
+    public int unlockUsers(AdminRequest adminRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(adminRequest.getUsernames(),
+                usernames -> userRepository.updateNonLockedByUsernameIn(usernames, true, now));
     }
 
     @Override
-    public void activateUser(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        users.forEach(user -> {
-            user.setActivated(true);
-            user.updateUpdatedAt();
-        });
-        userRepository.saveAll(users);
+    @Transactional
+    public int activateUser(AdminRequest adminRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(adminRequest.getUsernames(),
+                usernames -> userRepository.updateActivatedByUsernameIn(usernames, true, now));
     }
 
     @Override
-    public void deactivateUser(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        users.forEach(user -> {
-            user.setActivated(false);
-            user.updateUpdatedAt();
-        });
-        userRepository.saveAll(users);
+    @Transactional
+    public int deactivateUser(AdminRequest adminRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        return updateInChunks(adminRequest.getUsernames(),
+                usernames -> userRepository.updateActivatedByUsernameIn(usernames, false, now));
     }
 
     @Override
-    public void deleteUsers(AdminRequest adminRequest) {
-        List<User> users = userRepository.findAllByUsernameIn(adminRequest.getUsernames());
-        userRepository.deleteAll(users);
+    @Transactional
+    public int deleteUsers(AdminRequest adminRequest) {
+        return updateInChunks(adminRequest.getUsernames(), userRepository::deleteByUsernameIn);
+    }
+
+    private int updateInChunks(List<String> usernames, ToIntFunction<List<String>> update) {
+        int affected = 0;
+        for (List<String> chunk : ChunkUtilities.partition(UserRepository.normalize(usernames), ChunkUtilities.IN_CLAUSE_LIMIT))
+            affected += update.applyAsInt(chunk);
+        return affected;
     }
 }
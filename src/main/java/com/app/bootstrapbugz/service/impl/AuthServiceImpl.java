@@ -1,5 +1,7 @@
 package com.app.bootstrapbugz.service.impl;
 
+import com.app.bootstrapbugz.cache.EmailRateLimiter;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.dto.model.user.UserDto;
 import com.app.bootstrapbugz.dto.request.auth.ForgotPasswordRequest;
 import com.app.bootstrapbugz.dto.request.auth.ResendConfirmationEmailRequest;
@@ -10,6 +12,7 @@ import com.app.bootstrapbugz.error.exception.ForbiddenException;
 import com.app.bootstrapbugz.error.exception.ResourceNotFound;
 import com.app.bootstrapbugz.event.OnSendJwtEmail;
 import com.app.bootstrapbugz.hal.user.UserDtoModelAssembler;
+import com.app.bootstrapbugz.metrics.RequestTimings;
 import com.app.bootstrapbugz.model.user.Role;
 import com.app.bootstrapbugz.model.user.RoleName;
 import com.app.bootstrapbugz.model.user.User;
@@ -24,6 +27,7 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -34,11 +38,14 @@ public class AuthServiceImpl implements AuthService {
     private final MessageSource messageSource;
     private final PasswordEncoder bCryptPasswordEncoder;
     private final UserDtoModelAssembler assembler;
+    private final UserExistenceFilter userExistenceFilter;
+    private final EmailRateLimiter emailRateLimiter;
 
     public AuthServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
                            JwtUtilities jwtUtilities, ApplicationEventPublisher eventPublisher,
                            MessageSource messageSource, PasswordEncoder bCryptPasswordEncoder,
-                           UserDtoModelAssembler assembler) {
+                           UserDtoModelAssembler assembler, UserExistenceFilter userExistenceFilter,
+                           EmailRateLimiter emailRateLimiter) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.jwtUtilities = jwtUtilities;
@@ -46,14 +53,17 @@ public class AuthServiceImpl implements AuthService {
         this.messageSource = messageSource;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.assembler = assembler;
+        this.userExistenceFilter = userExistenceFilter;
+        this.emailRateLimiter = emailRateLimiter;
     }
 
     @Override
+    @Transactional
     public UserDto signUp(SignUpRequest signUpRequest) {
         User user = createUser(signUpRequest);
         String token = jwtUtilities.createToken(user, JwtPurpose.CONFIRM_REGISTRATION);
         eventPublisher.publishEvent(new OnSendJwtEmail(user, token, JwtPurpose.CONFIRM_REGISTRATION));
-        return assembler.toModel(new ModelMapper().map(user, UserDto.class));
+        return assembler.toModel(RequestTimings.time(RequestTimings.MAPPING, () -> new ModelMapper().map(user, UserDto.class)));
     }
 
     private User createUser(SignUpRequest signUpRequest) {
@@ -63,12 +73,16 @@ public class AuthServiceImpl implements AuthService {
                 .setUsername(signUpRequest.getUsername())
                 .setEmail(signUpRequest.getEmail())
                 .setPassword(bCryptPasswordEncoder.encode(signUpRequest.getPassword()));
-        Role role = roleRepository.findByName(RoleName.ROLE_USER).orElse(null);
+        Role role = roleRepository.findByName(RoleName.ROLE_USER)
+                .orElseThrow(() -> new IllegalStateException("Missing role " + RoleName.ROLE_USER));
         user.addRole(role);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userExistenceFilter.put(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public void confirmRegistration(String token) {
         String username = jwtUtilities.getSubject(token);
         User user = userRepository.findByUsername(username).orElseThrow(
@@ -80,28 +94,34 @@ public class AuthServiceImpl implements AuthService {
     private void activateUser(User user) {
         user.setActivated(true);
         user.updateUpdatedAt();
-        userRepository.save(user);
     }
 
     @Override
+    @Transactional
     public void resendConfirmationEmail(ResendConfirmationEmailRequest request) {
         User user = userRepository.findByUsername(request.getUsername()).orElseThrow(
                 () -> new ResourceNotFound(messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.AUTH));
         if (user.isActivated())
             throw new ForbiddenException(messageSource.getMessage("user.activated", null, LocaleContextHolder.getLocale()), ErrorDomain.AUTH);
+        if (!emailRateLimiter.tryAcquire(JwtPurpose.CONFIRM_REGISTRATION, user.getEmail()))
+            return;
         String token = jwtUtilities.createToken(user, JwtPurpose.CONFIRM_REGISTRATION);
         eventPublisher.publishEvent(new OnSendJwtEmail(user, token, JwtPurpose.CONFIRM_REGISTRATION));
     }
 
     @Override
+    @Transactional
     public void forgotPassword(ForgotPasswordRequest forgotPasswordRequest) {
         User user = userRepository.findByEmail(forgotPasswordRequest.getEmail()).orElseThrow(
                 () -> new ResourceNotFound(messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.AUTH));
+        if (!emailRateLimiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, user.getEmail()))
+            return;
         String token = jwtUtilities.createToken(user, JwtPurpose.FORGOT_PASSWORD);
         eventPublisher.publishEvent(new OnSendJwtEmail(user, token, JwtPurpose.FORGOT_PASSWORD));
     }
 
     @Override
+    @Transactional
     public void resetPassword(ResetPasswordRequest resetPasswordRequest) {
         String username = jwtUtilities.getSubject(resetPasswordRequest.getToken());
         User user = userRepository.findByUsername(username).orElseThrow(
@@ -113,6 +133,5 @@ public class AuthServiceImpl implements AuthService {
     private void changePassword(User user, String password) {
         user.setPassword(bCryptPasswordEncoder.encode(password));
         user.updateUpdatedAt();
-        userRepository.save(user);
     }
 }
@@ -1,22 +1,33 @@
 package com.app.bootstrapbugz.service.impl;
 
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
 import com.app.bootstrapbugz.service.EmailService;
-import org.springframework.core.io.FileSystemResource;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
 import javax.mail.internet.MimeMessage;
-import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class EmailServiceImpl implements EmailService {
     private final JavaMailSender mailSender;
+    private final CircuitBreaker mailCircuitBreaker;
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
+    public EmailServiceImpl(JavaMailSender mailSender, CircuitBreaker mailCircuitBreaker) {
         this.mailSender = mailSender;
+        this.mailCircuitBreaker = mailCircuitBreaker;
     }
 
     @Override
@@ -25,6 +36,70 @@ public class EmailServiceImpl implements EmailService {
         email.setTo(to);
         email.setSubject(subject);
         email.setText(body);
-        mailSender.send(email);
+        mailCircuitBreaker.executeRunnable(() -> mailSender.send(email));
+    }
+
+    @Override
+    public Map<EmailDto, Exception> sendEmails(List<EmailDto> emails) {
+        Map<EmailDto, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, EmailDto> messages = new IdentityHashMap<>();
+        List<MimeMessage> ordered = new ArrayList<>(emails.size());
+        for (EmailDto email : emails) {
+            try {
+                MimeMessage message = createMessage(email);
+                messages.put(message, email);
+                ordered.add(message);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+        if (messages.isEmpty())
+            return failures;
+        if (!mailCircuitBreaker.tryAcquirePermission()) {
+            CallNotPermittedException e = CallNotPermittedException.createCallNotPermittedException(mailCircuitBreaker);
+            messages.values().forEach(email -> failures.put(email, e));
+            return failures;
+        }
+        long start = System.nanoTime();
+        try {
+            mailSender.send(ordered.toArray(new MimeMessage[0]));
+            mailCircuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (MailSendException e) {
+            boolean unmatched = e.getFailedMessages().isEmpty();
+            for (Map.Entry<Object, Exception> failed : e.getFailedMessages().entrySet()) {
+                EmailDto email = messages.get(failed.getKey());
+                if (email == null)
+                    unmatched = true;
+                else
+                    failures.put(email, failed.getValue());
+            }
+            if (unmatched)
+                messages.values().forEach(email -> failures.put(email, e));
+            if (isServerFailure(e))
+                mailCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            else
+                mailCircuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            messages.values().forEach(email -> failures.put(email, e));
+            mailCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+        }
+        return failures;
+    }
+
+    private static boolean isServerFailure(MailSendException e) {
+        return e.getFailedMessages().isEmpty()
+                || e.getFailedMessages().values().stream().anyMatch(exception -> !(exception instanceof SendFailedException));
+    }
+
+    private MimeMessage createMessage(EmailDto email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getHtml() != null, StandardCharsets.UTF_8.name());
+        helper.setTo(email.getTo());
+        helper.setSubject(email.getSubject());
+        if (email.getHtml() != null)
+            helper.setText(email.getText(), email.getHtml());
+        else
+            helper.setText(email.getText());
+        return message;
     }
 }
@@ -0,0 +1,196 @@
+package com.app.bootstrapbugz.service.impl;
+
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.service.EmailTemplateService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Email templates from the EmailTemplates bundle. Each locale is compiled once, the configured locales eagerly
+ * at startup and any other on first use. Each email comes whole from the most specific bundle that defines it
+ * (language_COUNTRY, language, default), so a translated plain-text part is never paired with a default HTML part. Locales are
+ * reduced to language and country, and only the first few get their own entry; once the cache is full, other
+ * locales use their language's templates if compiled, otherwise the default ones.
+ */
+@Service
+public class EmailTemplateServiceImpl implements EmailTemplateService {
+    private static final String BASENAME = "EmailTemplates";
+    private static final Map<JwtPurpose, String> TEMPLATE_NAMES = new EnumMap<>(Map.of(
+            JwtPurpose.CONFIRM_REGISTRATION, "confirmRegistration",
+            JwtPurpose.FORGOT_PASSWORD, "forgotPassword"));
+    private static final Map<JwtPurpose, String> LINK_PATHS = new EnumMap<>(Map.of(
+            JwtPurpose.CONFIRM_REGISTRATION, "/api/auth/confirm-registration?token=",
+            JwtPurpose.FORGOT_PASSWORD, "/api/auth/reset-password?token="));
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final String baseUrl;
+    private final int maxLocales;
+    private final Map<Locale, Map<JwtPurpose, CompiledEmail>> templates = new ConcurrentHashMap<>();
+
+    public EmailTemplateServiceImpl(@Value("${email.link.base-url}") String baseUrl,
+                                    @Value("${email.templates.locales}") String[] locales,
+                                    @Value("${email.templates.max-locales}") int maxLocales) {
+        this.baseUrl = baseUrl;
+        this.maxLocales = maxLocales;
+        templates(Locale.ROOT);
+        for (String locale : locales)
+            templates(Locale.forLanguageTag(locale.trim()));
+    }
+
+    @Override
+    public EmailDto render(JwtPurpose purpose, Locale locale, String to, String token) {
+        CompiledEmail email = templates(locale == null ? Locale.ROOT : locale).get(purpose);
+        if (email == null)
+            throw new IllegalArgumentException("No email template for " + purpose);
+        String link = baseUrl + LINK_PATHS.get(purpose) + token;
+        return new EmailDto(to, email.subject.render(link, false), email.text.render(link, false),
+                email.html == null ? null : email.html.render(link, true));
+    }
+
+    private Map<JwtPurpose, CompiledEmail> templates(Locale locale) {
+        Locale key = new Locale(locale.getLanguage(), locale.getCountry());
+        Map<JwtPurpose, CompiledEmail> compiled = templates.get(key);
+        if (compiled != null)
+            return compiled;
+        if (templates.size() < maxLocales)
+            return templates.computeIfAbsent(key, this::compile);
+        compiled = templates.get(new Locale(locale.getLanguage()));
+        return compiled != null ? compiled : templates.get(Locale.ROOT);
+    }
+
+    private Map<JwtPurpose, CompiledEmail> compile(Locale locale) {
+        List<Properties> bundles = load(locale);
+        Map<JwtPurpose, CompiledEmail> compiled = new EnumMap<>(JwtPurpose.class);
+        TEMPLATE_NAMES.forEach((purpose, name) -> {
+            Properties properties = bundles.stream()
+                    .filter(bundle -> bundle.containsKey(name + ".subject") || bundle.containsKey(name + ".text"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Missing email template " + name));
+            compiled.put(purpose, new CompiledEmail(
+                    Template.compile(required(properties, name + ".subject")),
+                    Template.compile(required(properties, name + ".text")),
+                    properties.containsKey(name + ".html") ? Template.compile(properties.getProperty(name + ".html")) : null));
+        });
+        return compiled;
+    }
+
+    private static List<Properties> load(Locale locale) {
+        List<String> suffixes = new ArrayList<>();
+        if (!locale.getLanguage().isEmpty() && !locale.getCountry().isEmpty())
+            suffixes.add("_" + locale.getLanguage() + "_" + locale.getCountry());
+        if (!locale.getLanguage().isEmpty())
+            suffixes.add("_" + locale.getLanguage());
+        suffixes.add("");
+        List<Properties> bundles = new ArrayList<>();
+        for (String suffix : suffixes) {
+            ClassPathResource resource = new ClassPathResource(BASENAME + suffix + ".properties");
+            if (!resource.exists())
+                continue;
+            try {
+                bundles.add(PropertiesLoaderUtils.loadProperties(new EncodedResource(resource, StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return bundles;
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null)
+            throw new IllegalStateException("Missing email template " + key);
+        return value;
+    }
+
+    private static final class CompiledEmail {
+        private final Template subject;
+        private final Template text;
+        private final Template html;
+
+        private CompiledEmail(Template subject, Template text, Template html) {
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+    }
+
+    private static final class Template {
+        private static final String LINK = "{link}";
+
+        private final String[] literals;
+
+        private Template(String[] literals) {
+            this.literals = literals;
+        }
+
+        private static Template compile(String source) {
+            List<String> literals = new ArrayList<>();
+            int start = 0;
+            int open;
+            while ((open = source.indexOf('{', start)) >= 0) {
+                int close = source.indexOf('}', open);
+                if (close < 0)
+                    break;
+                if (!LINK.equals(source.substring(open, close + 1)))
+                    throw new IllegalStateException("Unknown email template variable " + source.substring(open, close + 1));
+                literals.add(source.substring(start, open));
+                start = close + 1;
+            }
+            literals.add(source.substring(start));
+            return new Template(literals.toArray(new String[0]));
+        }
+
+        private String render(String link, boolean html) {
+            if (literals.length == 1)
+                return literals[0];
+            StringBuilder buffer = BUFFER.get();
+            buffer.setLength(0);
+            for (int i = 0; i < literals.length - 1; i++) {
+                buffer.append(literals[i]);
+                if (html)
+                    escape(link, buffer);
+                else
+                    buffer.append(link);
+            }
+            buffer.append(literals[literals.length - 1]);
+            return buffer.toString();
+        }
+
+        private static void escape(String value, StringBuilder buffer) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&':
+                        buffer.append("&amp;");
+                        break;
+                    case '<':
+                        buffer.append("&lt;");
+                        break;
+                    case '>':
+                        buffer.append("&gt;");
+                        break;
+                    case '"':
+                        buffer.append("&quot;");
+                        break;
+                    default:
+                        buffer.append(c);
+                }
+            }
+        }
+    }
+}
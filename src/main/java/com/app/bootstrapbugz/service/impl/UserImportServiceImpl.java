@@ -0,0 +1,323 @@
+package com.app.bootstrapbugz.service.impl;
+
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.model.admin.UserImportResultDto;
+import com.app.bootstrapbugz.dto.request.admin.ImportUserRequest;
+import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.app.bootstrapbugz.event.OnSendJwtEmail;
+import com.app.bootstrapbugz.model.user.Role;
+import com.app.bootstrapbugz.model.user.RoleName;
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.user.RoleRepository;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.app.bootstrapbugz.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "username", "email", "password");
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final PasswordEncoder bCryptPasswordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    private final JwtUtilities jwtUtilities;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor passwordHashingExecutor;
+    private final TaskExecutor adminJobExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrorLines;
+
+    public UserImportServiceImpl(UserRepository userRepository, RoleRepository roleRepository, UserExistenceFilter userExistenceFilter,
+                                 PasswordEncoder bCryptPasswordEncoder, Validator validator, ObjectMapper objectMapper,
+                                 MessageSource messageSource, JwtUtilities jwtUtilities, ApplicationEventPublisher eventPublisher,
+                                 @Qualifier("passwordHashingExecutor") TaskExecutor passwordHashingExecutor,
+                                 @Qualifier("adminJobExecutor") TaskExecutor adminJobExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${admin.import.batch-size}") int batchSize,
+                                 @Value("${admin.import.max-error-lines}") int maxErrorLines) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.userExistenceFilter = userExistenceFilter;
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.messageSource = messageSource;
+        this.jwtUtilities = jwtUtilities;
+        this.eventPublisher = eventPublisher;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.adminJobExecutor = adminJobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrorLines = maxErrorLines;
+    }
+
+    @Override
+    public UserImportResultDto importUsers(InputStream inputStream, ImportFormat format, boolean sendEmails) {
+        Role role = roleRepository.findByName(RoleName.ROLE_USER)
+                .orElseThrow(() -> new IllegalStateException("Missing role " + RoleName.ROLE_USER));
+        UserImportResultDto result = new UserImportResultDto(0, 0, 0, new TreeMap<>());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = (format == ImportFormat.CSV) ? readCsvHeader(reader) : null;
+            int lineNumber = (format == ImportFormat.CSV) ? 1 : 0;
+            Map<Integer, ImportUserRequest> batch = new TreeMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank())
+                    continue;
+                result.setTotal(result.getTotal() + 1);
+                ImportUserRequest request = (format == ImportFormat.CSV) ? parseCsv(line, columns) : parseNdjson(line);
+                if (request == null)
+                    addError(result, lineNumber, messageSource.getMessage("import.malformedLine", null, LocaleContextHolder.getLocale()));
+                else
+                    batch.put(lineNumber, request);
+                if (batch.size() == batchSize) {
+                    importBatch(batch, role, sendEmails, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty())
+                importBatch(batch, role, sendEmails, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        result.setFailed(result.getTotal() - result.getImported());
+        return result;
+    }
+
+    private void importBatch(Map<Integer, ImportUserRequest> batch, Role role, boolean sendEmails, UserImportResultDto result) {
+        Map<Integer, ImportUserRequest> valid = validate(batch, result);
+        removeExisting(valid, result);
+        if (valid.isEmpty())
+            return;
+
+        List<CompletableFuture<User>> futures = valid.values().stream()
+                .map(request -> CompletableFuture.supplyAsync(() -> createUser(request, role), passwordHashingExecutor::execute))
+                .collect(Collectors.toList());
+        List<User> created = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        List<User> users;
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(created));
+            users = created;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Import batch conflicted with existing users, saving its rows one by one: {}", e.getMostSpecificCause().getMessage());
+            users = saveIndividually(new ArrayList<>(valid.keySet()), created, result);
+        }
+        users.forEach(user -> userExistenceFilter.put(user.getUsername(), user.getEmail()));
+        result.setImported(result.getImported() + users.size());
+
+        if (sendEmails)
+            sendConfirmationEmails(users);
+    }
+
+    private List<User> saveIndividually(List<Integer> lineNumbers, List<User> users, UserImportResultDto result) {
+        List<User> saved = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i).setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                saved.add(user);
+            } catch (DataIntegrityViolationException e) {
+                addError(result, lineNumbers.get(i), conflictError(e));
+            }
+        }
+        return saved;
+    }
+
+    private String conflictError(DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (cause.contains(User.USERNAME_CONSTRAINT))
+            return "username: " + messageSource.getMessage("username.exists", null, LocaleContextHolder.getLocale());
+        if (cause.contains(User.EMAIL_CONSTRAINT))
+            return "email: " + messageSource.getMessage("email.exists", null, LocaleContextHolder.getLocale());
+        return messageSource.getMessage("import.conflict", null, LocaleContextHolder.getLocale());
+    }
+
+    private Map<Integer, ImportUserRequest> validate(Map<Integer, ImportUserRequest> batch, UserImportResultDto result) {
+        Map<Integer, ImportUserRequest> valid = new TreeMap<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        batch.forEach((lineNumber, request) -> {
+            Set<ConstraintViolation<ImportUserRequest>> violations = validator.validate(request);
+            violations.forEach(violation -> addError(result, lineNumber, violation.getPropertyPath() + ": " + violation.getMessage()));
+            if (!violations.isEmpty())
+                return;
+            if (!usernames.add(User.normalize(request.getUsername())))
+                addError(result, lineNumber, "username: " + messageSource.getMessage("username.exists", null, LocaleContextHolder.getLocale()));
+            else if (!emails.add(User.normalize(request.getEmail())))
+                addError(result, lineNumber, "email: " + messageSource.getMessage("email.exists", null, LocaleContextHolder.getLocale()));
+            else
+                valid.put(lineNumber, request);
+        });
+        return valid;
+    }
+
+    private void removeExisting(Map<Integer, ImportUserRequest> valid, UserImportResultDto result) {
+        if (valid.isEmpty())
+            return;
+        Set<String> existingUsernames = new HashSet<>(userRepository.findUsernamesByUsernameInChunks(
+                valid.values().stream().map(ImportUserRequest::getUsername).collect(Collectors.toList())));
+        Set<String> existingEmails = new HashSet<>(userRepository.findEmailsByEmailInChunks(
+                valid.values().stream().map(ImportUserRequest::getEmail).collect(Collectors.toList())));
+        valid.entrySet().removeIf(entry -> {
+            if (existingUsernames.contains(User.normalize(entry.getValue().getUsername()))) {
+                addError(result, entry.getKey(), "username: " + messageSource.getMessage("username.exists", null, LocaleContextHolder.getLocale()));
+                return true;
+            }
+            if (existingEmails.contains(User.normalize(entry.getValue().getEmail()))) {
+                addError(result, entry.getKey(), "email: " + messageSource.getMessage("email.exists", null, LocaleContextHolder.getLocale()));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private User createUser(ImportUserRequest request, Role role) {
+        String password = BCRYPT_PATTERN.matcher(request.getPassword()).matches()
+                ? request.getPassword()
+                : bCryptPasswordEncoder.encode(request.getPassword());
+        User user = new User()
+                .setFirstName(request.getFirstName())
+                .setLastName(request.getLastName())
+                .setUsername(request.getUsername())
+                .setEmail(request.getEmail())
+                .setPassword(password)
+                .setActivated(request.isActivated());
+        user.addRole(role);
+        return user;
+    }
+
+    private void sendConfirmationEmails(List<User> users) {
+        List<User> notActivated = users.stream().filter(user -> !user.isActivated()).collect(Collectors.toList());
+        if (notActivated.isEmpty())
+            return;
+        try {
+            adminJobExecutor.execute(() -> notActivated.forEach(user -> {
+                String token = jwtUtilities.createToken(user, JwtPurpose.CONFIRM_REGISTRATION);
+                eventPublisher.publishEvent(new OnSendJwtEmail(user, token, JwtPurpose.CONFIRM_REGISTRATION));
+            }));
+        } catch (TaskRejectedException e) {
+            log.warn("Confirmation emails for {} imported users were not sent: {}", notActivated.size(), e.getMessage());
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        List<String> names = (header == null) ? null : parseCsvLine(header);
+        if (names == null || !names.containsAll(CSV_COLUMNS))
+            throw new BadRequestException(messageSource.getMessage("import.missingHeader", null, LocaleContextHolder.getLocale()), ErrorDomain.ADMIN);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++)
+            columns.put(names.get(i), i);
+        return columns;
+    }
+
+    private ImportUserRequest parseCsv(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        if (values == null || values.size() != columns.size())
+            return null;
+        Integer activated = columns.get("activated");
+        return new ImportUserRequest()
+                .setFirstName(values.get(columns.get("firstName")))
+                .setLastName(values.get(columns.get("lastName")))
+                .setUsername(values.get(columns.get("username")))
+                .setEmail(values.get(columns.get("email")))
+                .setPassword(values.get(columns.get("password")))
+                .setActivated(activated != null && Boolean.parseBoolean(values.get(activated)));
+    }
+
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted)
+            return null;
+        values.add(value.toString().trim());
+        return values;
+    }
+
+    private ImportUserRequest parseNdjson(String line) {
+        try {
+            return objectMapper.readValue(line, ImportUserRequest.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private void addError(UserImportResultDto result, int lineNumber, String error) {
+        List<String> errors = result.getErrors().get(lineNumber);
+        if (errors == null) {
+            if (result.getErrors().size() >= maxErrorLines)
+                return;
+            errors = new ArrayList<>();
+            result.getErrors().put(lineNumber, errors);
+        }
+        errors.add(error);
+    }
+}
@@ -1,5 +1,6 @@
 package com.app.bootstrapbugz.service.impl;
 
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.constant.JwtPurpose;
 import com.app.bootstrapbugz.dto.model.user.UserDto;
 import com.app.bootstrapbugz.dto.request.user.ChangePasswordRequest;
@@ -9,6 +10,7 @@ import com.app.bootstrapbugz.error.exception.BadRequestException;
 import com.app.bootstrapbugz.error.exception.ResourceNotFound;
 import com.app.bootstrapbugz.event.OnSendJwtEmail;
 import com.app.bootstrapbugz.hal.user.UserDtoModelAssembler;
+import com.app.bootstrapbugz.metrics.RequestTimings;
 import com.app.bootstrapbugz.model.user.User;
 import com.app.bootstrapbugz.repository.user.UserRepository;
 import com.app.bootstrapbugz.security.jwt.JwtUtilities;
@@ -22,6 +24,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -35,15 +38,18 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder bCryptPasswordEncoder;
     private final ApplicationEventPublisher eventPublisher;
     private final JwtUtilities jwtUtilities;
+    private final UserExistenceFilter userExistenceFilter;
 
     public UserServiceImpl(UserRepository userRepository, MessageSource messageSource, UserDtoModelAssembler assembler,
-                           PasswordEncoder bCryptPasswordEncoder, ApplicationEventPublisher eventPublisher, JwtUtilities jwtUtilities) {
+                           PasswordEncoder bCryptPasswordEncoder, ApplicationEventPublisher eventPublisher, JwtUtilities jwtUtilities,
+                           UserExistenceFilter userExistenceFilter) {
         this.userRepository = userRepository;
         this.messageSource = messageSource;
         this.assembler = assembler;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
         this.eventPublisher = eventPublisher;
         this.jwtUtilities = jwtUtilities;
+        this.userExistenceFilter = userExistenceFilter;
     }
 
     @Override
@@ -51,7 +57,7 @@ public class UserServiceImpl implements UserService {
         List<User> users = userRepository.findAll();
         if (users.isEmpty())
             throw new ResourceNotFound(messageSource.getMessage("users.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.USER);
-        return assembler.toCollectionModel(map(users));
+        return assembler.toCollectionModel(RequestTimings.time(RequestTimings.MAPPING, () -> map(users)));
     }
 
     private CollectionModel<UserDto> map(List<User> users) {
@@ -67,46 +73,60 @@ public class UserServiceImpl implements UserService {
     public UserDto findByUsername(String username) {
         User user = userRepository.findByUsername(username).orElseThrow(
                 () -> new ResourceNotFound(messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.USER));
-        return assembler.toModel(new ModelMapper().map(user, UserDto.class));
+        return assembler.toModel(RequestTimings.time(RequestTimings.MAPPING, () -> new ModelMapper().map(user, UserDto.class)));
     }
 
     @Override
+    @Transactional
     public UserDto edit(EditUserRequest editUserRequest) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User user = userRepository.findByUsername(auth.getName()).orElseThrow(
                 () -> new ResourceNotFound(messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.USER));
+        boolean usernameChanged = checkUsername(user, editUserRequest.getUsername());
+        boolean emailChanged = checkEmail(user, editUserRequest.getEmail());
         user.setFirstName(editUserRequest.getFirstName());
         user.setLastName(editUserRequest.getLastName());
-        tryToSetUsername(user, editUserRequest.getUsername());
-        tryToSetEmail(user, editUserRequest.getEmail());
-        return assembler.toModel(new ModelMapper().map(userRepository.save(user), UserDto.class));
+        if (usernameChanged)
+            setUsername(user, editUserRequest.getUsername());
+        if (emailChanged)
+            setEmail(user, editUserRequest.getEmail());
+        return assembler.toModel(RequestTimings.time(RequestTimings.MAPPING, () -> new ModelMapper().map(user, UserDto.class)));
     }
 
-    private void tryToSetUsername(User user, String username) {
+    private boolean checkUsername(User user, String username) {
         if (user.getUsername().equals(username))
-            return;
-        if (userRepository.existsByUsername(username))
+            return false;
+        if (!User.normalize(user.getUsername()).equals(User.normalize(username)) && userExistenceFilter.isUsernameTaken(username))
             throw new BadRequestException(messageSource.getMessage("username.exists", null, LocaleContextHolder.getLocale()), ErrorDomain.USER);
-
-        user.setUsername(username);
-        user.updateUpdatedAt();
+        return true;
     }
 
-    private void tryToSetEmail(User user, String email) {
+    private boolean checkEmail(User user, String email) {
         if (user.getEmail().equals(email))
-            return;
-        if (userRepository.existsByEmail(email))
+            return false;
+        if (!User.normalize(user.getEmail()).equals(User.normalize(email)) && userExistenceFilter.isEmailTaken(email))
             throw new BadRequestException(messageSource.getMessage("email.exists", null, LocaleContextHolder.getLocale()), ErrorDomain.USER);
+        return true;
+    }
+
+    private void setUsername(User user, String username) {
+        user.setUsername(username);
+        user.updateUpdatedAt();
+        userExistenceFilter.put(username, null);
+    }
 
+    private void setEmail(User user, String email) {
         user.setEmail(email);
         user.setActivated(false);
         user.updateUpdatedAt();
+        userExistenceFilter.put(null, email);
 
         String token = jwtUtilities.createToken(user, JwtPurpose.CONFIRM_REGISTRATION);
         eventPublisher.publishEvent(new OnSendJwtEmail(user, token, JwtPurpose.CONFIRM_REGISTRATION));
     }
 
     @Override
+    @Transactional
     public void changePassword(ChangePasswordRequest changePasswordRequest) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User user = userRepository.findByUsername(auth.getName()).orElseThrow(
@@ -119,15 +139,14 @@ public class UserServiceImpl implements UserService {
     private void changePassword(User user, String password) {
         user.setPassword(bCryptPasswordEncoder.encode(password));
         user.updateUpdatedAt();
-        userRepository.save(user);
     }
 
     @Override
+    @Transactional
     public void logoutFromAllDevices() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User user = userRepository.findByUsername(auth.getName()).orElseThrow(
                 () -> new ResourceNotFound(messageSource.getMessage("user.notFound", null, LocaleContextHolder.getLocale()), ErrorDomain.USER));
         user.updateLogoutFromAllDevicesAt();
-        userRepository.save(user);
     }
 }
@@ -0,0 +1,24 @@
+package com.app.bootstrapbugz.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+public final class ChunkUtilities {
+    public static final int IN_CLAUSE_LIMIT = 1000;
+
+    private ChunkUtilities() {
+    }
+
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + size - 1) / size);
+        for (int from = 0; from < list.size(); from += size)
+            chunks.add(list.subList(from, Math.min(from + size, list.size())));
+        return chunks;
+    }
+
+    public static <T> List<T> distinct(Collection<T> values) {
+        return new ArrayList<>(new LinkedHashSet<>(values));
+    }
+}
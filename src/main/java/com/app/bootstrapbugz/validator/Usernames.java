@@ -0,0 +1,23 @@
+package com.app.bootstrapbugz.validator;
+
+import com.app.bootstrapbugz.validator.impl.UsernamesImpl;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+@Target({FIELD, ANNOTATION_TYPE})
+@Retention(RUNTIME)
+@Constraint(validatedBy = UsernamesImpl.class)
+@Documented
+public @interface Usernames {
+    String message() default "{usernames.notEmpty}";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -1,22 +1,25 @@
 package com.app.bootstrapbugz.validator.impl;
 
-import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.validator.EmailExist;
+import org.springframework.beans.factory.annotation.Value;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 public class EmailExistImpl implements ConstraintValidator<EmailExist, String> {
-    private final UserRepository userRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final boolean preCheck;
 
-    public EmailExistImpl(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public EmailExistImpl(UserExistenceFilter userExistenceFilter, @Value("${user.uniqueness.pre-check}") boolean preCheck) {
+        this.userExistenceFilter = userExistenceFilter;
+        this.preCheck = preCheck;
     }
 
     public void initialize(EmailExist constraint) {
     }
 
     public boolean isValid(String email, ConstraintValidatorContext context) {
-        return !userRepository.existsByEmail(email);
+        return !preCheck || !userExistenceFilter.isEmailTaken(email);
     }
 }
@@ -1,12 +1,26 @@
 package com.app.bootstrapbugz.validator.impl;
 
 import com.app.bootstrapbugz.validator.FieldMatch;
-import org.apache.commons.beanutils.BeanUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FieldMatchImpl implements ConstraintValidator<FieldMatch, Object> {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private String firstFieldName;
     private String secondFieldName;
 
@@ -16,12 +30,37 @@ public class FieldMatchImpl implements ConstraintValidator<FieldMatch, Object> {
     }
 
     public boolean isValid(Object obj, ConstraintValidatorContext context) {
+        if (obj == null)
+            return true;
+        Map<String, MethodHandle> accessors = ACCESSORS.get(obj.getClass());
+        MethodHandle first = accessors.computeIfAbsent(firstFieldName, name -> findGetter(obj.getClass(), name));
+        MethodHandle second = accessors.computeIfAbsent(secondFieldName, name -> findGetter(obj.getClass(), name));
         try {
-            final Object firstObj = BeanUtils.getProperty(obj, firstFieldName);
-            final Object secondObj = BeanUtils.getProperty(obj, secondFieldName);
-
-            return firstObj == null && secondObj == null || firstObj != null && firstObj.equals(secondObj);
-        } catch (final Exception ignore) {}
+            return Objects.equals((Object) first.invokeExact(obj), (Object) second.invokeExact(obj));
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable ignore) {}
         return true;
     }
+
+    /**
+     * Resolves the getter for a field, including on non-public classes. A field without a getter is a
+     * misconfigured constraint, and failing open there would let mismatched values through, so it throws.
+     */
+    private static MethodHandle findGetter(Class<?> type, String fieldName) {
+        String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+                try {
+                    Method method = current.getDeclaredMethod(name);
+                    method.setAccessible(true);
+                    return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+                } catch (NoSuchMethodException ignore) {
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new IllegalStateException("Cannot access " + name + " on " + type.getName(), e);
+                }
+            }
+        }
+        throw new IllegalStateException("No getter for field " + fieldName + " on " + type.getName());
+    }
 }
@@ -1,22 +1,25 @@
 package com.app.bootstrapbugz.validator.impl;
 
-import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.validator.UsernameExist;
+import org.springframework.beans.factory.annotation.Value;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 public class UsernameExistImpl implements ConstraintValidator<UsernameExist, String> {
-    private final UserRepository userRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final boolean preCheck;
 
-    public UsernameExistImpl(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UsernameExistImpl(UserExistenceFilter userExistenceFilter, @Value("${user.uniqueness.pre-check}") boolean preCheck) {
+        this.userExistenceFilter = userExistenceFilter;
+        this.preCheck = preCheck;
     }
 
     public void initialize(UsernameExist constraint) {
     }
 
     public boolean isValid(String username, ConstraintValidatorContext context) {
-        return !userRepository.existsByUsername(username);
+        return !preCheck || !userExistenceFilter.isUsernameTaken(username);
     }
 }
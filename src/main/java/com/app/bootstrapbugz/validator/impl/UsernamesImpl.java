@@ -0,0 +1,45 @@
+package com.app.bootstrapbugz.validator.impl;
+
+import com.app.bootstrapbugz.validator.Usernames;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import java.util.List;
+
+public class UsernamesImpl implements ConstraintValidator<Usernames, List<String>> {
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 16;
+
+    public void initialize(Usernames constraint) {
+    }
+
+    public boolean isValid(List<String> usernames, ConstraintValidatorContext context) {
+        if (usernames == null || usernames.isEmpty())
+            return invalid(context, "{usernames.notEmpty}");
+        for (String username : usernames) {
+            String template = check(username);
+            if (template != null)
+                return invalid(context, template);
+        }
+        return true;
+    }
+
+    private String check(String username) {
+        if (username == null || username.isEmpty())
+            return "{username.notEmpty}";
+        if (username.length() < MIN_LENGTH || username.length() > MAX_LENGTH)
+            return "{username.size}";
+        for (int i = 0; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'))
+                return "{username.regex}";
+        }
+        return null;
+    }
+
+    private boolean invalid(ConstraintValidatorContext context, String template) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(template).addConstraintViolation();
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.app.bootstrapbugz.admin.business;
+
+import com.app.bootstrapbugz.constant.AdminOperation;
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.constant.JobOutcome;
+import com.app.bootstrapbugz.constant.JobStatus;
+import com.app.bootstrapbugz.dto.model.admin.AdminJobDto;
+import com.app.bootstrapbugz.dto.model.admin.UserImportResultDto;
+import com.app.bootstrapbugz.dto.request.admin.AdminJobRequest;
+import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
+import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.service.AdminService;
+import com.app.bootstrapbugz.service.UserImportService;
+import com.app.bootstrapbugz.service.impl.AdminJobServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminJobServiceTest {
+    @Mock
+    private AdminService adminService;
+    @Mock
+    private UserImportService userImportService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MessageSource messageSource;
+
+    private AdminJobServiceImpl adminJobService;
+
+    @BeforeEach
+    void init() {
+        adminJobService = new AdminJobServiceImpl(adminService, userImportService, userRepository, new SyncTaskExecutor(), messageSource, 2, 60);
+    }
+
+    @Test
+    void submit_lock_ok() {
+        List<String> usernames = Arrays.asList("user", "unknown", "admin");
+        when(userRepository.findNormalizedUsernamesIn(anyList()))
+                .thenReturn(Collections.singletonList("user"), Collections.singletonList("admin"));
+        when(adminService.lockUsers(any(AdminRequest.class))).thenReturn(1);
+
+        AdminJobDto job = adminJobService.submit(new AdminJobRequest(AdminOperation.LOCK, usernames, null));
+
+        assertEquals(JobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertEquals(2, job.getAffected());
+        assertEquals(1, job.getNotFound());
+        assertNotNull(job.getFinishedAt());
+        assertNull(job.getOutcomes());
+        Map<String, JobOutcome> outcomes = adminJobService.findById(job.getId(), 0, 10).getOutcomes();
+        assertEquals(JobOutcome.PROCESSED, outcomes.get("user"));
+        assertEquals(JobOutcome.NOT_FOUND, outcomes.get("unknown"));
+        assertEquals(JobOutcome.PROCESSED, outcomes.get("admin"));
+        verify(adminService, times(2)).lockUsers(any(AdminRequest.class));
+    }
+
+    @Test
+    void submit_chunkFails_remainingChunksProcessed() {
+        List<String> usernames = IntStream.range(0, 4).mapToObj(i -> "user" + i).collect(Collectors.toList());
+        when(userRepository.findNormalizedUsernamesIn(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(adminService.deleteUsers(any(AdminRequest.class))).thenThrow(new RuntimeException()).thenReturn(2);
+
+        AdminJobDto job = adminJobService.submit(new AdminJobRequest(AdminOperation.DELETE, usernames, null));
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(4, job.getProcessed());
+        assertEquals(2, job.getAffected());
+        assertEquals(2, job.getFailed());
+        Map<String, JobOutcome> outcomes = adminJobService.findById(job.getId(), 0, 10).getOutcomes();
+        assertEquals(JobOutcome.FAILED, outcomes.get("user0"));
+        assertEquals(JobOutcome.PROCESSED, outcomes.get("user3"));
+    }
+
+    @Test
+    void findById_outcomesPage_onlyThatPage() {
+        List<String> usernames = IntStream.range(0, 5).mapToObj(i -> "user" + i).collect(Collectors.toList());
+        when(userRepository.findNormalizedUsernamesIn(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        AdminJobDto job = adminJobService.submit(new AdminJobRequest(AdminOperation.LOGOUT, usernames, null));
+
+        assertEquals(Arrays.asList("user2", "user3"), new ArrayList<>(adminJobService.findById(job.getId(), 1, 2).getOutcomes().keySet()));
+        assertTrue(adminJobService.findById(job.getId(), 3, 2).getOutcomes().isEmpty());
+    }
+
+    @Test
+    void submit_changeRoleWithoutRoles_throwsBadRequest() {
+        AdminJobRequest request = new AdminJobRequest(AdminOperation.CHANGE_ROLE, Collections.singletonList("user"), null);
+        assertThrows(BadRequestException.class, () -> adminJobService.submit(request));
+    }
+
+    @Test
+    void submit_import_throwsBadRequest() {
+        AdminJobRequest request = new AdminJobRequest(AdminOperation.IMPORT, Collections.singletonList("user"), null);
+        assertThrows(BadRequestException.class, () -> adminJobService.submit(request));
+    }
+
+    @Test
+    void submitImport_ok() {
+        String csv = "firstName,lastName,username,email,password\nImported,Imported,imported,imported@localhost.com,123\n";
+        when(userImportService.importUsers(any(InputStream.class), eq(ImportFormat.CSV), eq(false))).thenAnswer(invocation -> {
+            assertEquals(csv, new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8));
+            return new UserImportResultDto(1, 1, 0, Collections.emptyMap());
+        });
+
+        AdminJobDto job = adminJobService.submitImport(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, false);
+
+        assertEquals(AdminOperation.IMPORT, job.getOperation());
+        assertEquals(JobStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getTotal());
+        assertEquals(1, job.getAffected());
+        assertEquals(1, job.getResult().getImported());
+    }
+
+    @Test
+    void submitImport_importFails_jobFailedWithError() {
+        when(userImportService.importUsers(any(InputStream.class), eq(ImportFormat.CSV), eq(false)))
+                .thenThrow(new BadRequestException("Please provide a header line.", ErrorDomain.ADMIN));
+
+        AdminJobDto job = adminJobService.submitImport(new ByteArrayInputStream(new byte[0]), ImportFormat.CSV, false);
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals("Please provide a header line.", job.getError());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void findById_ok() {
+        AdminJobDto job = adminJobService.submit(new AdminJobRequest(AdminOperation.LOGOUT, Collections.singletonList("user"), null));
+        assertEquals(job.getId(), adminJobService.findById(job.getId()).getId());
+    }
+
+    @Test
+    void findById_throwsResourceNotFound() {
+        assertThrows(ResourceNotFound.class, () -> adminJobService.findById("unknown"));
+    }
+}
@@ -4,7 +4,6 @@ import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
 import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
 import com.app.bootstrapbugz.model.user.Role;
 import com.app.bootstrapbugz.model.user.RoleName;
-import com.app.bootstrapbugz.model.user.User;
 import com.app.bootstrapbugz.repository.user.RoleRepository;
 import com.app.bootstrapbugz.repository.user.UserRepository;
 import com.app.bootstrapbugz.service.impl.AdminServiceImpl;
@@ -13,21 +12,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -38,15 +37,12 @@ public class AdminServiceTest {
     private UserRepository userRepository;
     @Mock
     private RoleRepository roleRepository;
-    @Spy
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
 
     @InjectMocks
     private AdminServiceImpl adminService;
 
     private AdminRequest adminRequest;
     private ChangeRoleRequest changeRoleRequest;
-    private List<User> users;
     private List<Role> roles;
 
     @BeforeEach
@@ -55,77 +51,85 @@ public class AdminServiceTest {
         changeRoleRequest = new ChangeRoleRequest(
                 adminRequest.getUsernames(),
                 Arrays.asList(RoleName.ROLE_USER, RoleName.ROLE_ADMIN));
-        Role userRole = new Role(1L, RoleName.ROLE_USER);
-        users = Collections.singletonList(new User()
-                .setId(2L)
-                .setFirstName("User")
-                .setLastName("User")
-                .setUsername("user")
-                .setEmail("user@localhost.com")
-                .setPassword(bCryptPasswordEncoder.encode("123"))
-                .setActivated(true)
-                .setRoles(Set.of(userRole)));
-        roles = Arrays.asList(new Role(1L, RoleName.ROLE_ADMIN), userRole);
+        roles = Arrays.asList(new Role(2L, RoleName.ROLE_ADMIN), new Role(1L, RoleName.ROLE_USER));
     }
 
     @Test
     void logoutUsersFromAllDevices_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        LocalDateTime beforeLogout = users.get(0).getLogoutFromAllDevicesAt();
-        adminService.logoutUsersFromAllDevices(adminRequest);
-        assertNotEquals(beforeLogout, users.get(0).getLogoutFromAllDevicesAt());
+        when(userRepository.updateLogoutFromAllDevicesAtByUsernameIn(eq(adminRequest.getUsernames()), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.logoutUsersFromAllDevices(adminRequest));
     }
 
     @Test
     void changeUsersRole_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
         when(roleRepository.findAllByNameIn(changeRoleRequest.getRoleNames())).thenReturn(roles);
-        LocalDateTime updatedAtBeforeChange = users.get(0).getUpdatedAt();
-        adminService.changeUsersRole(changeRoleRequest);
-        assertNotEquals(updatedAtBeforeChange, users.get(0).getUpdatedAt());
-        assertEquals(new HashSet<>(roles), users.get(0).getRoles());
+        when(userRepository.updateUpdatedAtByUsernameIn(eq(changeRoleRequest.getUsernames()), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.changeUsersRole(changeRoleRequest));
+        verify(userRepository, times(1)).deleteRolesByUsernameIn(changeRoleRequest.getUsernames());
+        verify(userRepository, times(1)).insertRolesByUsernameIn(changeRoleRequest.getUsernames(), Set.of(1L, 2L));
+    }
+
+    @Test
+    void changeUsersRole_moreUsernamesThanChunkSize_rolesResolvedOnce() {
+        List<String> usernames = IntStream.range(0, 2500).mapToObj(i -> "user" + i).collect(Collectors.toList());
+        ChangeRoleRequest request = new ChangeRoleRequest(usernames, changeRoleRequest.getRoleNames());
+        when(roleRepository.findAllByNameIn(request.getRoleNames())).thenReturn(roles);
+        adminService.changeUsersRole(request);
+        verify(roleRepository, times(1)).findAllByNameIn(request.getRoleNames());
+        verify(userRepository, times(3)).deleteRolesByUsernameIn(anyList());
+        verify(userRepository, times(3)).insertRolesByUsernameIn(anyList(), eq(Set.of(1L, 2L)));
     }
 
     @Test
     void lockUsers_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        LocalDateTime updatedAtBeforeChange = users.get(0).getUpdatedAt();
-        adminService.lockUsers(adminRequest);
-        assertNotEquals(updatedAtBeforeChange, users.get(0).getUpdatedAt());
-        assertFalse(users.get(0).isNonLocked());
+        when(userRepository.updateNonLockedByUsernameIn(eq(adminRequest.getUsernames()), eq(false), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.lockUsers(adminRequest));
     }
 
     @Test
     void unlockUsers_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        LocalDateTime updatedAtBeforeChange = users.get(0).getUpdatedAt();
-        adminService.unlockUsers(adminRequest);
-        assertNotEquals(updatedAtBeforeChange, users.get(0).getUpdatedAt());
-        assertTrue(users.get(0).isNonLocked());
+        when(userRepository.updateNonLockedByUsernameIn(eq(adminRequest.getUsernames()), eq(true), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.unlockUsers(adminRequest));
     }
 
     @Test
     void activateUsers_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        LocalDateTime updatedAtBeforeChange = users.get(0).getUpdatedAt();
-        adminService.activateUser(adminRequest);
-        assertNotEquals(updatedAtBeforeChange, users.get(0).getUpdatedAt());
-        assertTrue(users.get(0).isActivated());
+        when(userRepository.updateActivatedByUsernameIn(eq(adminRequest.getUsernames()), eq(true), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.activateUser(adminRequest));
     }
 
     @Test
     void deactivateUsers_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        LocalDateTime updatedAtBeforeChange = users.get(0).getUpdatedAt();
-        adminService.deactivateUser(adminRequest);
-        assertNotEquals(updatedAtBeforeChange, users.get(0).getUpdatedAt());
-        assertFalse(users.get(0).isActivated());
+        when(userRepository.updateActivatedByUsernameIn(eq(adminRequest.getUsernames()), eq(false), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.deactivateUser(adminRequest));
+    }
+
+    @Test
+    void lockUsers_moreUsernamesThanChunkSize_updatedInChunks() {
+        List<String> usernames = IntStream.range(0, 2500).mapToObj(i -> "user" + i).collect(Collectors.toList());
+        when(userRepository.updateNonLockedByUsernameIn(anyList(), eq(false), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<String>>getArgument(0).size());
+        assertEquals(2500, adminService.lockUsers(new AdminRequest(usernames)));
+        verify(userRepository, times(3)).updateNonLockedByUsernameIn(anyList(), eq(false), any(LocalDateTime.class));
+    }
+
+    @Test
+    void lockUsers_duplicateUsernames_updatedOnce() {
+        when(userRepository.updateNonLockedByUsernameIn(eq(Collections.singletonList("user")), eq(false), any(LocalDateTime.class)))
+                .thenReturn(1);
+        assertEquals(1, adminService.lockUsers(new AdminRequest(Arrays.asList("user", "user", "user"))));
     }
 
     @Test
     void deleteUsers_ok() {
-        when(userRepository.findAllByUsernameIn(adminRequest.getUsernames())).thenReturn(users);
-        adminService.deleteUsers(adminRequest);
-        verify(userRepository, times(1)).deleteAll(users);
+        when(userRepository.deleteByUsernameIn(adminRequest.getUsernames())).thenReturn(1);
+        assertEquals(1, adminService.deleteUsers(adminRequest));
+        verify(userRepository, never()).deleteRolesByUsernameIn(anyList());
     }
 }
@@ -0,0 +1,184 @@
+package com.app.bootstrapbugz.admin.business;
+
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
+import com.app.bootstrapbugz.constant.ImportFormat;
+import com.app.bootstrapbugz.dto.model.admin.UserImportResultDto;
+import com.app.bootstrapbugz.error.exception.BadRequestException;
+import com.app.bootstrapbugz.model.user.Role;
+import com.app.bootstrapbugz.model.user.RoleName;
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.user.RoleRepository;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.app.bootstrapbugz.service.impl.UserImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+    private static final String HASHED_PASSWORD = new BCryptPasswordEncoder().encode("123");
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+    @Mock
+    private MessageSource messageSource;
+    @Mock
+    private JwtUtilities jwtUtilities;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportServiceImpl userImportService;
+
+    @BeforeEach
+    void init() {
+        userImportService = new UserImportServiceImpl(userRepository, roleRepository, userExistenceFilter, new BCryptPasswordEncoder(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), messageSource, jwtUtilities,
+                eventPublisher, new SyncTaskExecutor(), new SyncTaskExecutor(), transactionManager, 2, 3);
+        when(roleRepository.findByName(RoleName.ROLE_USER)).thenReturn(Optional.of(new Role(1L, RoleName.ROLE_USER)));
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> savedUsers(int batches) {
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(batches)).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void importUsers_csv_ok() {
+        String csv = "firstName,lastName,username,email,password\n" +
+                "\"Lee, Jr.\",Smith,lee,lee@localhost.com,123\n" +
+                "Ann,Smith,ann,ann@localhost.com," + HASHED_PASSWORD + "\n";
+        UserImportResultDto result = userImportService.importUsers(stream(csv), ImportFormat.CSV, false);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(2, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        List<User> users = savedUsers(1);
+        assertEquals("Lee, Jr.", users.get(0).getFirstName());
+        assertTrue(users.get(0).getPassword().startsWith("$2a$"));
+        assertEquals(HASHED_PASSWORD, users.get(1).getPassword());
+        assertEquals(1, users.get(1).getRoles().size());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void importUsers_ndjson_invalidAndExistingRowsRejected() {
+        when(userRepository.findUsernamesByUsernameInChunks(anyList())).thenReturn(Collections.singletonList("admin"));
+        String ndjson = "{\"firstName\":\"Admin\",\"lastName\":\"Admin\",\"username\":\"admin\",\"email\":\"new@localhost.com\",\"password\":\"123\"}\n" +
+                "{\"firstName\":\"Ann\",\"lastName\":\"Smith\",\"username\":\"ann\",\"email\":\"ann@localhost.com\",\"password\":\"123\"}\n" +
+                "{\"firstName\":\"A\",\"lastName\":\"Smith\",\"username\":\"a\",\"email\":\"a@localhost.com\",\"password\":\"123\"}\n" +
+                "not json\n";
+        UserImportResultDto result = userImportService.importUsers(stream(ndjson), ImportFormat.NDJSON, false);
+
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getErrors().size());
+        assertTrue(result.getErrors().containsKey(1));
+        assertTrue(result.getErrors().containsKey(3));
+        assertTrue(result.getErrors().containsKey(4));
+        assertEquals("ann", savedUsers(1).get(0).getUsername());
+    }
+
+    @Test
+    void importUsers_duplicateInBatch_rejected() {
+        String csv = "firstName,lastName,username,email,password\n" +
+                "Ann,Smith,ann,ann@localhost.com,123\n" +
+                "Ann,Smith,ann,ann2@localhost.com,123\n";
+        UserImportResultDto result = userImportService.importUsers(stream(csv), ImportFormat.CSV, false);
+
+        assertEquals(1, result.getImported());
+        assertTrue(result.getErrors().containsKey(3));
+    }
+
+    @Test
+    void importUsers_sendEmails_publishedForNotActivatedUsers() {
+        String csv = "firstName,lastName,username,email,password,activated\n" +
+                "Ann,Smith,ann,ann@localhost.com,123,false\n" +
+                "Lee,Smith,lee,lee@localhost.com,123,true\n" +
+                "Bob,Smith,bob,bob@localhost.com,123,false\n";
+        UserImportResultDto result = userImportService.importUsers(stream(csv), ImportFormat.CSV, true);
+
+        assertEquals(3, result.getImported());
+        savedUsers(2);
+        verify(eventPublisher, times(2)).publishEvent(any());
+    }
+
+    @Test
+    void importUsers_batchConflictsWithConcurrentSignUp_rowsSavedOneByOne() {
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("uk_users_username"));
+        when(userRepository.save(any(User.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation: UK_USERS_USERNAME"));
+        String csv = "firstName,lastName,username,email,password\n" +
+                "Ann,Smith,ann,ann@localhost.com,123\n" +
+                "Lee,Smith,lee,lee@localhost.com,123\n";
+        UserImportResultDto result = userImportService.importUsers(stream(csv), ImportFormat.CSV, false);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getErrors().get(3).get(0).startsWith("username: "));
+        verify(userExistenceFilter, times(1)).put("ann", "ann@localhost.com");
+    }
+
+    @Test
+    void importUsers_manyInvalidLines_errorsCappedAndCounted() {
+        UserImportResultDto result = userImportService.importUsers(stream("not json\nnot json\nnot json\nnot json\n"), ImportFormat.NDJSON, false);
+
+        assertEquals(4, result.getTotal());
+        assertEquals(4, result.getFailed());
+        assertEquals(3, result.getErrors().size());
+    }
+
+    @Test
+    void importUsers_userRoleMissing_throws() {
+        when(roleRepository.findByName(RoleName.ROLE_USER)).thenReturn(Optional.empty());
+        assertThrows(IllegalStateException.class,
+                () -> userImportService.importUsers(stream("firstName,lastName,username,email,password\n"), ImportFormat.CSV, false));
+    }
+
+    @Test
+    void importUsers_missingHeader_throwsBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> userImportService.importUsers(stream("ann,ann@localhost.com\n"), ImportFormat.CSV, false));
+    }
+}
@@ -1,11 +1,16 @@
 package com.app.bootstrapbugz.admin.web;
 
+import com.app.bootstrapbugz.constant.AdminOperation;
+import com.app.bootstrapbugz.constant.JobOutcome;
+import com.app.bootstrapbugz.constant.JobStatus;
+import com.app.bootstrapbugz.dto.request.admin.AdminJobRequest;
 import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
 import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
 import com.app.bootstrapbugz.dto.request.auth.LoginRequest;
 import com.app.bootstrapbugz.model.user.RoleName;
 import com.app.bootstrapbugz.security.jwt.JwtUtilities;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -15,17 +20,24 @@ import org.junit.jupiter.api.Order;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -64,12 +76,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(1)
-    void logoutUserFromAllDevices_statusNoContent() throws Exception {
+    void logoutUserFromAllDevices_statusOk() throws Exception {
         mockMvc.perform(get(PATH + "/users/logout")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -102,7 +115,7 @@ public class AdminControllerTest {
 
     @Test
     @Order(5)
-    void changeUsersRole_statusNoContent() throws Exception {
+    void changeUsersRole_statusOk() throws Exception {
         ChangeRoleRequest changeRoleRequest = new ChangeRoleRequest(
                 Collections.singletonList("not_activated"),
                 Arrays.asList(RoleName.ROLE_USER, RoleName.ROLE_ADMIN));
@@ -110,7 +123,8 @@ public class AdminControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(changeRoleRequest)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
     }
 
     @Test
@@ -149,12 +163,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(9)
-    void lockUsers_statusNoContent() throws Exception {
+    void lockUsers_statusOk() throws Exception {
         mockMvc.perform(put(PATH + "/users/lock")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -187,12 +202,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(13)
-    void unlockUsers_statusNoContent() throws Exception {
+    void unlockUsers_statusOk() throws Exception {
         mockMvc.perform(put(PATH + "/users/unlock")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -225,12 +241,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(17)
-    void deactivateUser_statusNoContent() throws Exception {
+    void deactivateUser_statusOk() throws Exception {
         mockMvc.perform(put(PATH + "/users/deactivate")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -263,12 +280,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(21)
-    void activateUser_statusNoContent() throws Exception {
+    void activateUser_statusOk() throws Exception {
         mockMvc.perform(put(PATH + "/users/activate")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -301,12 +319,13 @@ public class AdminControllerTest {
 
     @Test
     @Order(25)
-    void deleteUser_statusNoContent() throws Exception {
+    void deleteUser_statusOk() throws Exception {
         mockMvc.perform(delete(PATH + "/users/delete")
                 .contentType(MediaType.APPLICATION_JSON)
                 .header(JwtUtilities.HEADER, adminToken)
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
     }
 
     @Test
@@ -336,4 +355,133 @@ public class AdminControllerTest {
                 .content(objectMapper.writeValueAsString(ADMIN_REQUEST)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @Order(29)
+    void submitJob_unknownUsername_outcomeNotFound() throws Exception {
+        AdminJobRequest adminJobRequest = new AdminJobRequest(AdminOperation.LOCK, Collections.singletonList("unknown"), null);
+        String location = mockMvc.perform(post(PATH + "/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(objectMapper.writeValueAsString(adminJobRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String body = awaitJob(location);
+        assertEquals(JobStatus.COMPLETED.name(), JsonPath.read(body, "$.status"));
+        assertEquals(1, (int) JsonPath.read(body, "$.processed"));
+        assertEquals(1, (int) JsonPath.read(body, "$.notFound"));
+        mockMvc.perform(get(location).param("outcomes", "true").header(JwtUtilities.HEADER, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outcomes.unknown").value(JobOutcome.NOT_FOUND.name()));
+    }
+
+    private String awaitJob(String location) throws Exception {
+        String body;
+        int attempts = 0;
+        do {
+            Thread.sleep(50);
+            body = mockMvc.perform(get(location).header(JwtUtilities.HEADER, adminToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        } while (JsonPath.read(body, "$.finishedAt") == null && ++attempts < 100);
+        return body;
+    }
+
+    @Test
+    @Order(30)
+    void submitJob_invalidParameters_statusBadRequest() throws Exception {
+        mockMvc.perform(post(PATH + "/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(objectMapper.writeValueAsString(new AdminJobRequest(null, Collections.emptyList(), null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(31)
+    void submitJob_statusUnauthorized() throws Exception {
+        AdminJobRequest adminJobRequest = new AdminJobRequest(AdminOperation.LOCK, Collections.singletonList("user"), null);
+        mockMvc.perform(post(PATH + "/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, userToken)
+                .content(objectMapper.writeValueAsString(adminJobRequest)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Order(32)
+    void findJobById_statusNotFound() throws Exception {
+        mockMvc.perform(get(PATH + "/jobs/unknown")
+                .header(JwtUtilities.HEADER, adminToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(33)
+    void importUsers_statusAccepted() throws Exception {
+        String csv = "firstName,lastName,username,email,password\n" +
+                "Imported,Imported,imported,imported@localhost.com,123\n" +
+                "Admin,Admin,admin,admin@localhost.com,123\n";
+        String location = mockMvc.perform(post(PATH + "/users/import")
+                .contentType("text/csv")
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(csv))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.operation").value(AdminOperation.IMPORT.name()))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        String body = awaitJob(location);
+        assertEquals(JobStatus.COMPLETED.name(), JsonPath.read(body, "$.status"));
+        assertEquals(2, (int) JsonPath.read(body, "$.result.total"));
+        assertEquals(1, (int) JsonPath.read(body, "$.result.imported"));
+        assertEquals(1, (int) JsonPath.read(body, "$.result.errors.3.length()"));
+    }
+
+    @Test
+    @Order(34)
+    void importUsers_statusUnauthorized() throws Exception {
+        mockMvc.perform(post(PATH + "/users/import")
+                .contentType("application/x-ndjson")
+                .header(JwtUtilities.HEADER, userToken)
+                .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @Order(35)
+    void lockUsers_hundredThousandUsernames_statusOk() throws Exception {
+        List<String> usernames = IntStream.range(0, 100_000).mapToObj(i -> "missing_" + i).collect(Collectors.toList());
+        mockMvc.perform(put(PATH + "/users/lock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(objectMapper.writeValueAsString(new AdminRequest(usernames))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(0));
+    }
+
+    @Test
+    @Order(36)
+    void lockUsers_tooManyUsernames_statusBadRequest() throws Exception {
+        List<String> usernames = IntStream.range(0, 100_001).mapToObj(i -> "missing_" + i).collect(Collectors.toList());
+        mockMvc.perform(put(PATH + "/users/lock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(objectMapper.writeValueAsString(new AdminRequest(usernames))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].domain").value("admin"))
+                .andExpect(jsonPath("$.errors[0].message").value("Please provide at most 100000 usernames."));
+    }
+
+    @Test
+    @Order(37)
+    void lockUsers_invalidUsername_statusBadRequest() throws Exception {
+        mockMvc.perform(put(PATH + "/users/lock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, adminToken)
+                .content(objectMapper.writeValueAsString(new AdminRequest(Arrays.asList("user", "not-valid")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].domain").value("usernames"));
+    }
 }
@@ -1,6 +1,8 @@
 package com.app.bootstrapbugz.auth.business;
 
 import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.cache.EmailRateLimiter;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.dto.model.user.UserDto;
 import com.app.bootstrapbugz.dto.request.auth.ForgotPasswordRequest;
 import com.app.bootstrapbugz.dto.request.auth.ResendConfirmationEmailRequest;
@@ -38,6 +40,8 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -58,6 +62,10 @@ public class AuthServiceTest {
     private JwtUtilities jwtUtilities;
     @Spy
     private UserDtoModelAssembler assembler;
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+    @Spy
+    private EmailRateLimiter emailRateLimiter = new EmailRateLimiter(60, 1000);
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -90,6 +98,13 @@ public class AuthServiceTest {
         assertEquals(signUpRequest.getEmail(), createdUser.getEmail());
     }
 
+    @Test
+    void signUp_userRoleMissing_throws() {
+        SignUpRequest signUpRequest = signUpRequest();
+        assertThrows(IllegalStateException.class, () -> authService.signUp(signUpRequest));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     private SignUpRequest signUpRequest() {
         return new SignUpRequest()
                 .setFirstName("User")
@@ -145,6 +160,24 @@ public class AuthServiceTest {
         verify(jwtUtilities, times(1)).createToken(user, JwtPurpose.FORGOT_PASSWORD);
     }
 
+    @Test
+    void forgotPassword_repeatedWithinWindow_coalesced() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.ofNullable(user));
+        authService.forgotPassword(new ForgotPasswordRequest("user@localhost.com"));
+        authService.forgotPassword(new ForgotPasswordRequest("User@Localhost.com"));
+        verify(jwtUtilities, times(1)).createToken(user, JwtPurpose.FORGOT_PASSWORD);
+        verify(eventPublisher, times(1)).publishEvent(any());
+    }
+
+    @Test
+    void resendConfirmationEmail_alreadyActivated_repeatedRequestsStillForbidden() {
+        when(userRepository.findByUsername("user")).thenReturn(Optional.ofNullable(user));
+        ResendConfirmationEmailRequest request = new ResendConfirmationEmailRequest("user");
+        assertThrows(ForbiddenException.class, () -> authService.resendConfirmationEmail(request));
+        assertThrows(ForbiddenException.class, () -> authService.resendConfirmationEmail(request));
+        verify(emailRateLimiter, never()).tryAcquire(any(), any());
+    }
+
     @Test
     void forgotPassword_notFound() {
         ForgotPasswordRequest forgotPasswordRequest = new ForgotPasswordRequest("notFound@localhost.com");
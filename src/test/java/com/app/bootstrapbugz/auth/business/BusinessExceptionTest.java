@@ -0,0 +1,31 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.error.exception.BusinessException;
+import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BusinessExceptionTest {
+    @AfterEach
+    void cleanUp() {
+        BusinessException.setStackTraceEnabled(false);
+    }
+
+    @Test
+    void create_stackTracesDisabled_stackless() {
+        ResourceNotFound exception = new ResourceNotFound("User not found.", ErrorDomain.AUTH);
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("User not found.", exception.getMessage());
+        assertEquals(ErrorDomain.AUTH, exception.getDomain());
+    }
+
+    @Test
+    void create_stackTracesEnabled_traceFilledIn() {
+        BusinessException.setStackTraceEnabled(true);
+        assertTrue(new ResourceNotFound("User not found.", ErrorDomain.AUTH).getStackTrace().length > 0);
+    }
+}
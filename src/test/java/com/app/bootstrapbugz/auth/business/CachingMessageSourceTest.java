@@ -0,0 +1,77 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.cache.CachingMessageSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingMessageSourceTest {
+    @Mock
+    private MessageSource delegate;
+
+    private CachingMessageSource messageSource;
+
+    @BeforeEach
+    void init() {
+        messageSource = new CachingMessageSource(delegate, 2);
+    }
+
+    @Test
+    void getMessage_warmedUp_resolvedFromCache() {
+        when(delegate.getMessage("user.notFound", null, Locale.ENGLISH)).thenReturn("User not found.");
+        messageSource.warmUp(List.of("user.notFound"), List.of(Locale.ENGLISH));
+
+        assertEquals("User not found.", messageSource.getMessage("user.notFound", null, Locale.ENGLISH));
+        assertEquals("User not found.", messageSource.getMessage("user.notFound", null, "Default", Locale.ENGLISH));
+        verify(delegate, times(1)).getMessage("user.notFound", null, Locale.ENGLISH);
+    }
+
+    @Test
+    void getMessage_notWarmedUp_resolvedOnce() {
+        when(delegate.getMessage("user.notFound", null, Locale.GERMAN)).thenReturn("Benutzer nicht gefunden.");
+        messageSource.getMessage("user.notFound", null, Locale.GERMAN);
+        messageSource.getMessage("user.notFound", null, Locale.GERMAN);
+        verify(delegate, times(1)).getMessage("user.notFound", null, Locale.GERMAN);
+    }
+
+    @Test
+    void getMessage_withArguments_delegated() {
+        Object[] args = {"user"};
+        when(delegate.getMessage("user.locked", args, Locale.ENGLISH)).thenReturn("User user is locked.");
+        messageSource.getMessage("user.locked", args, Locale.ENGLISH);
+        messageSource.getMessage("user.locked", args, Locale.ENGLISH);
+        verify(delegate, times(2)).getMessage("user.locked", args, Locale.ENGLISH);
+    }
+
+    @Test
+    void getMessage_missingWithDefault_defaultNotCached() {
+        when(delegate.getMessage(eq("unknown"), isNull(), isNull(), any(Locale.class))).thenReturn(null);
+        assertEquals("Default", messageSource.getMessage("unknown", null, "Default", Locale.ENGLISH));
+        assertEquals("Other", messageSource.getMessage("unknown", null, "Other", Locale.ENGLISH));
+    }
+
+    @Test
+    void getMessage_moreLocalesThanMax_extraLocalesNotCached() {
+        when(delegate.getMessage(eq("user.notFound"), isNull(), any(Locale.class))).thenReturn("User not found.");
+        messageSource.getMessage("user.notFound", null, Locale.ENGLISH);
+        messageSource.getMessage("user.notFound", null, Locale.GERMAN);
+        messageSource.getMessage("user.notFound", null, Locale.FRENCH);
+        messageSource.getMessage("user.notFound", null, Locale.FRENCH);
+        verify(delegate, times(2)).getMessage("user.notFound", null, Locale.FRENCH);
+    }
+}
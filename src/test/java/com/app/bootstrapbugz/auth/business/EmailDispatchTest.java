@@ -0,0 +1,267 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.config.EmailDispatchConfig;
+import com.app.bootstrapbugz.constant.EmailOutboxStatus;
+import com.app.bootstrapbugz.constant.EmailRejectionPolicy;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.event.OnSendJwtEmail;
+import com.app.bootstrapbugz.event.listener.OnSendJwtEmailListener;
+import com.app.bootstrapbugz.event.relay.EmailOutboxRelay;
+import com.app.bootstrapbugz.model.email.EmailOutbox;
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.email.EmailOutboxRepository;
+import com.app.bootstrapbugz.service.EmailService;
+import com.app.bootstrapbugz.service.impl.EmailTemplateServiceImpl;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailDispatchTest {
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreaker mailCircuitBreaker = CircuitBreaker.ofDefaults("mail");
+    private EmailOutboxRelay relay;
+
+    @BeforeEach
+    void init() {
+        relay = new EmailOutboxRelay(emailOutboxRepository, emailService,
+                new EmailTemplateServiceImpl("http://localhost:8181", new String[]{"en"}, 16), Runnable::run, mailCircuitBreaker,
+                meterRegistry, transactionManager, 2, 3, 1000, 60000, 0.5, 300000, 2);
+    }
+
+    private EmailOutbox claim(EmailOutbox email) {
+        when(emailOutboxRepository.findDueIds(eq(EmailOutboxStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(1L));
+        when(emailOutboxRepository.findAllByClaimToken(anyString())).thenReturn(Collections.singletonList(email));
+        return email;
+    }
+
+    @Test
+    void onApplicationEvent_writesOutboxRow() {
+        OnSendJwtEmailListener listener = new OnSendJwtEmailListener(emailOutboxRepository);
+        User user = new User().setUsername("user").setEmail("user@localhost.com");
+        listener.onApplicationEvent(new OnSendJwtEmail(user, "token", JwtPurpose.CONFIRM_REGISTRATION));
+
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository, times(1)).save(captor.capture());
+        assertEquals("user@localhost.com", captor.getValue().getRecipient());
+        assertEquals(EmailOutboxStatus.PENDING, captor.getValue().getStatus());
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_sendsBatchAndMarksSent() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.CONFIRM_REGISTRATION, "token", Locale.ENGLISH).setId(1L));
+        when(emailService.sendEmails(anyList())).thenReturn(Collections.emptyMap());
+        relay.relay();
+
+        verify(emailOutboxRepository, times(1)).claim(eq(Collections.singletonList(1L)), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+        ArgumentCaptor<List<EmailDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailService, times(1)).sendEmails(captor.capture());
+        assertEquals("Activate Account", captor.getValue().get(0).getSubject());
+        assertTrue(captor.getValue().get(0).getText().endsWith("http://localhost:8181/api/auth/confirm-registration?token=token"));
+        verify(emailOutboxRepository, times(1)).markSent(eq(1L), any(), any(LocalDateTime.class));
+        assertEquals(1, meterRegistry.counter("email.send", "purpose", "CONFIRM_REGISTRATION", "outcome", "success").count());
+    }
+
+    @Test
+    void relay_nothingDue_sendsNothing() {
+        when(emailOutboxRepository.findDueIds(eq(EmailOutboxStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        relay.relay();
+        verify(emailOutboxRepository, never()).claim(anyList(), anyString(), any(), any());
+        verify(emailService, never()).sendEmails(anyList());
+    }
+
+    private void failAll() {
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            Map<EmailDto, Exception> failures = new IdentityHashMap<>();
+            invocation.<List<EmailDto>>getArgument(0).forEach(message -> failures.put(message, new RuntimeException("smtp down")));
+            return failures;
+        });
+    }
+
+    @Test
+    void relay_sendFails_rescheduledWithBackoff() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setAttempts(1));
+        failAll();
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository, times(1)).markFailed(eq(1L), any(), eq(EmailOutboxStatus.PENDING), eq(2), nextAttemptAt.capture(), eq("smtp down"));
+        assertTrue(!nextAttemptAt.getValue().isBefore(before.plusSeconds(2)));
+        assertEquals(1, meterRegistry.counter("email.send", "purpose", "FORGOT_PASSWORD", "outcome", "failure").count());
+    }
+
+    @Test
+    void relay_sendFails_backoffJitteredWithinBounds() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setAttempts(1));
+        failAll();
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository, times(1)).markFailed(eq(1L), any(), eq(EmailOutboxStatus.PENDING), eq(2), nextAttemptAt.capture(), anyString());
+        assertTrue(!nextAttemptAt.getValue().isAfter(after.plusSeconds(3)));
+    }
+
+    @Test
+    void relay_circuitOpen_claimsNothing() {
+        mailCircuitBreaker.transitionToOpenState();
+        relay.relay();
+        verify(emailOutboxRepository, never()).findDueIds(any(), any(), any());
+        verify(emailService, never()).sendEmails(anyList());
+    }
+
+    @Test
+    void relay_sendNotPermitted_attemptNotCounted() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setAttempts(1));
+        when(emailService.sendEmails(anyList())).thenAnswer(invocation -> {
+            Map<EmailDto, Exception> failures = new IdentityHashMap<>();
+            invocation.<List<EmailDto>>getArgument(0).forEach(message ->
+                    failures.put(message, CallNotPermittedException.createCallNotPermittedException(mailCircuitBreaker)));
+            return failures;
+        });
+        relay.relay();
+        verify(emailOutboxRepository, times(1)).markFailed(eq(1L), any(), eq(EmailOutboxStatus.PENDING), eq(1), any(LocalDateTime.class), any());
+        assertEquals(1, meterRegistry.counter("email.send", "purpose", "FORGOT_PASSWORD", "outcome", "not_permitted").count());
+    }
+
+    @Test
+    void relay_lastAttemptFails_markedFailed() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setAttempts(2));
+        failAll();
+        relay.relay();
+        verify(emailOutboxRepository, times(1)).markFailed(eq(1L), any(), eq(EmailOutboxStatus.FAILED), eq(3), any(LocalDateTime.class), anyString());
+    }
+
+    private EmailOutboxRelay relayOn(TaskExecutor executor) {
+        return new EmailOutboxRelay(emailOutboxRepository, emailService,
+                new EmailTemplateServiceImpl("http://localhost:8181", new String[]{"en"}, 16), executor, mailCircuitBreaker,
+                meterRegistry, transactionManager, 1, 3, 1000, 60000, 0.5, 300000, 2);
+    }
+
+    @Test
+    void relay_fullBatches_claimsOnlyAsManyAsFreeSlots() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L));
+        List<Runnable> queued = new ArrayList<>();
+        EmailOutboxRelay relay = relayOn(queued::add);
+        relay.relay();
+        verify(emailOutboxRepository, times(2)).claim(anyList(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+
+        when(emailService.sendEmails(anyList())).thenReturn(Collections.emptyMap());
+        queued.remove(0).run();
+        relay.relay();
+        verify(emailOutboxRepository, times(3)).claim(anyList(), anyString(), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void relay_executorRejects_claimReleased() {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setClaimToken("claim"));
+        relayOn(task -> {
+            throw new TaskRejectedException("shutting down");
+        }).relay();
+        verify(emailOutboxRepository, times(1)).release("claim");
+        verify(emailService, never()).sendEmails(anyList());
+    }
+
+    @Test
+    void emailExecutor_queueFull_discardsAndCounts() throws InterruptedException {
+        ThreadPoolTaskExecutor executor = new EmailDispatchConfig().emailExecutor(1, 1, EmailRejectionPolicy.DISCARD, meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        Runnable task = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ran.incrementAndGet();
+        };
+        executor.execute(task);
+        executor.execute(task);
+        assertThrows(TaskRejectedException.class, () -> executor.execute(task));
+
+        assertEquals(1, meterRegistry.counter("email.dispatch.rejected").count());
+        assertEquals(1, meterRegistry.get("email.dispatch.queue.depth").gauge().value());
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, ran.get());
+    }
+
+    @Test
+    void relay_discardQueueFull_claimAndSlotReleased() throws InterruptedException {
+        claim(new EmailOutbox("user@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setId(1L).setClaimToken("claim"));
+        ThreadPoolTaskExecutor executor = new EmailDispatchConfig().emailExecutor(1, 1, EmailRejectionPolicy.DISCARD, meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocker);
+        executor.execute(blocker);
+        EmailOutboxRelay relay = relayOn(executor);
+
+        relay.relay();
+        relay.relay();
+        relay.relay();
+        verify(emailOutboxRepository, times(3)).release("claim");
+        verify(emailService, never()).sendEmails(anyList());
+        assertEquals(3, meterRegistry.counter("email.dispatch.rejected").count());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.cache.EmailRateLimiter;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmailRateLimiterTest {
+    @Test
+    void tryAcquire_repeatWithinWindow_rejected() {
+        EmailRateLimiter limiter = new EmailRateLimiter(60, 100);
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "user@localhost.com"));
+        assertFalse(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, " USER@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.CONFIRM_REGISTRATION, "user@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "admin@localhost.com"));
+    }
+
+    @Test
+    void tryAcquire_windowElapsed_accepted() {
+        EmailRateLimiter limiter = new EmailRateLimiter(0, 100);
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "user@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "user@localhost.com"));
+    }
+
+    @Test
+    void tryAcquire_maxEntriesReached_leastRecentEvicted() {
+        EmailRateLimiter limiter = new EmailRateLimiter(60, 2);
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "first@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "second@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "third@localhost.com"));
+        assertTrue(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "first@localhost.com"));
+        assertFalse(limiter.tryAcquire(JwtPurpose.FORGOT_PASSWORD, "third@localhost.com"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.service.impl.EmailServiceImpl;
+import com.app.bootstrapbugz.support.FakeSmtpServer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EmailServiceTest {
+    private FakeSmtpServer smtpServer;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void init() throws IOException {
+        smtpServer = new FakeSmtpServer(0);
+        emailService = new EmailServiceImpl(smtpServer.createMailSender(), CircuitBreaker.ofDefaults("mail"));
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        smtpServer.close();
+    }
+
+    private static EmailDto message(String to) {
+        return new EmailDto(to, "Subject", "Body", "<p>Body</p>");
+    }
+
+    @Test
+    void sendEmails_batchSentOverOneConnection() {
+        List<EmailDto> messages = IntStream.range(0, 5)
+                .mapToObj(i -> message("user" + i + "@localhost.com"))
+                .collect(Collectors.toList());
+        assertTrue(emailService.sendEmails(messages).isEmpty());
+        assertEquals(1, smtpServer.connections());
+        assertThat(smtpServer.delivered()).hasSize(5);
+    }
+
+    @Test
+    void sendEmails_textOnly_sentWithoutMultipart() {
+        assertTrue(emailService.sendEmails(List.of(new EmailDto("user@localhost.com", "Subject", "Body", null))).isEmpty());
+        assertThat(smtpServer.delivered()).containsExactly("user@localhost.com");
+    }
+
+    @Test
+    void sendEmails_rejectedRecipient_onlyThatMessageFails() {
+        EmailDto rejected = message("reject@localhost.com");
+        List<EmailDto> messages = Arrays.asList(message("first@localhost.com"), rejected, message("last@localhost.com"));
+        Map<EmailDto, Exception> failures = emailService.sendEmails(messages);
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(rejected));
+        assertThat(smtpServer.delivered()).containsExactly("first@localhost.com", "last@localhost.com");
+    }
+
+    @Test
+    void sendEmails_serverUnavailable_allMessagesFail() throws IOException {
+        JavaMailSenderImpl mailSender = smtpServer.createMailSender();
+        smtpServer.close();
+        List<EmailDto> messages = Arrays.asList(message("first@localhost.com"), message("second@localhost.com"));
+        assertEquals(2, new EmailServiceImpl(mailSender, CircuitBreaker.ofDefaults("mail")).sendEmails(messages).size());
+    }
+
+    @Test
+    void sendEmails_serverUnavailable_circuitOpensAndFailsFast() throws IOException {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("mail", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .build());
+        JavaMailSenderImpl mailSender = smtpServer.createMailSender();
+        smtpServer.close();
+        EmailServiceImpl failingService = new EmailServiceImpl(mailSender, circuitBreaker);
+        List<EmailDto> messages = List.of(message("user@localhost.com"));
+        failingService.sendEmails(messages);
+        failingService.sendEmails(messages);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(failingService.sendEmails(messages).values().iterator().next() instanceof CallNotPermittedException);
+    }
+
+    @Test
+    void sendEmails_rejectedRecipients_circuitStaysClosed() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("mail", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .build());
+        EmailServiceImpl rejectingService = new EmailServiceImpl(smtpServer.createMailSender(), circuitBreaker);
+        rejectingService.sendEmails(List.of(message("reject@localhost.com")));
+        rejectingService.sendEmails(List.of(message("reject@localhost.com")));
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private static JavaMailSender failingSender(RuntimeException failure) {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doThrow(failure).when(mailSender).send((MimeMessage[]) any());
+        return mailSender;
+    }
+
+    @Test
+    void sendEmails_unexpectedException_allMessagesFailAndTrialCallRecorded() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("mail", CircuitBreakerConfig.custom()
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        circuitBreaker.transitionToOpenState();
+        circuitBreaker.transitionToHalfOpenState();
+        EmailServiceImpl failingService = new EmailServiceImpl(failingSender(new IllegalStateException("broken")), circuitBreaker);
+        List<EmailDto> messages = Arrays.asList(message("first@localhost.com"), message("second@localhost.com"));
+
+        Map<EmailDto, Exception> failures = failingService.sendEmails(messages);
+        assertEquals(2, failures.size());
+        assertTrue(failures.values().stream().allMatch(e -> e instanceof IllegalStateException));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void sendEmails_failedMessageNotRecognized_allMessagesFail() throws MessagingException {
+        MimeMessage rebuilt = new MimeMessage((Session) null);
+        MailSendException failure = new MailSendException(Map.of(rebuilt, new MessagingException("rejected")));
+        List<EmailDto> messages = Arrays.asList(message("first@localhost.com"), message("second@localhost.com"));
+        assertEquals(2, new EmailServiceImpl(failingSender(failure), CircuitBreaker.ofDefaults("mail")).sendEmails(messages).size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.service.impl.EmailTemplateServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmailTemplateServiceTest {
+    private final EmailTemplateServiceImpl emailTemplateService =
+            new EmailTemplateServiceImpl("https://bootstrapbugz.com", new String[]{"en", "de"}, 16);
+
+    @Test
+    void render_confirmRegistration_ok() {
+        EmailDto email = emailTemplateService.render(JwtPurpose.CONFIRM_REGISTRATION, Locale.ENGLISH, "user@localhost.com", "a.b&c");
+        assertEquals("user@localhost.com", email.getTo());
+        assertEquals("Activate Account", email.getSubject());
+        assertEquals("Please activate your account by clicking on link.\nhttps://bootstrapbugz.com/api/auth/confirm-registration?token=a.b&c",
+                email.getText());
+        assertEquals("<p>Please activate your account by clicking on " +
+                "<a href=\"https://bootstrapbugz.com/api/auth/confirm-registration?token=a.b&amp;c\">link</a>.</p>", email.getHtml());
+    }
+
+    @Test
+    void render_localizedTemplate_wholeEmailFromOneBundle() {
+        EmailDto email = emailTemplateService.render(JwtPurpose.CONFIRM_REGISTRATION, Locale.GERMANY, "user@localhost.com", "token");
+        assertEquals("Konto aktivieren", email.getSubject());
+        assertEquals("Bitte aktivieren Sie Ihr Konto über diesen Link.\nhttps://bootstrapbugz.com/api/auth/confirm-registration?token=token",
+                email.getText());
+        assertNull(email.getHtml());
+        assertEquals("Forgot Password",
+                emailTemplateService.render(JwtPurpose.FORGOT_PASSWORD, Locale.GERMAN, "user@localhost.com", "token").getSubject());
+    }
+
+    @Test
+    void render_unknownLocale_usesDefault() {
+        assertEquals("Forgot Password",
+                emailTemplateService.render(JwtPurpose.FORGOT_PASSWORD, Locale.JAPANESE, "user@localhost.com", "token").getSubject());
+    }
+
+    @Test
+    void render_cacheFull_fallsBackToLanguageOrDefault() {
+        EmailTemplateServiceImpl service = new EmailTemplateServiceImpl("https://bootstrapbugz.com", new String[]{"de"}, 2);
+        assertEquals("Konto aktivieren",
+                service.render(JwtPurpose.CONFIRM_REGISTRATION, Locale.forLanguageTag("de-AT"), "user@localhost.com", "token").getSubject());
+        assertEquals("Activate Account",
+                service.render(JwtPurpose.CONFIRM_REGISTRATION, Locale.forLanguageTag("fr-FR"), "user@localhost.com", "token").getSubject());
+    }
+
+    @Test
+    void render_purposeWithoutTemplate_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> emailTemplateService.render(JwtPurpose.ACCESSING_RESOURCES, Locale.ENGLISH, "user@localhost.com", "token"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.error.handling.ErrorResponseWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ErrorResponseWriterTest {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter(objectMapper);
+
+    @Test
+    void write_compactJsonWithCurrentTimestamp() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        errorResponseWriter.write(response, errorResponseWriter.prepare(HttpStatus.UNAUTHORIZED, ErrorDomain.AUTH, "Bad \"credentials\""));
+
+        assertEquals(401, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        String body = response.getContentAsString();
+        assertFalse(body.contains("\n"));
+        JsonNode json = objectMapper.readTree(body);
+        assertTrue(json.get("timestamp").asText().matches("\\d{2}-\\d{2}-\\d{4} \\d{2}:\\d{2}:\\d{2}"));
+        assertEquals(401, json.get("status").asInt());
+        assertEquals("Unauthorized", json.get("error").asText());
+        assertEquals(ErrorDomain.AUTH.getValue(), json.get("errors").get(0).get("domain").asText());
+        assertEquals("Bad \"credentials\"", json.get("errors").get(0).get("message").asText());
+    }
+
+    @Test
+    void prepare_sameMessage_renderedOnce() {
+        assertSame(errorResponseWriter.prepare(HttpStatus.FORBIDDEN, ErrorDomain.AUTH, "Forbidden"),
+                errorResponseWriter.prepare(HttpStatus.FORBIDDEN, ErrorDomain.AUTH, "Forbidden"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.metrics.RepositoryMetricsPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.Repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RepositoryMetricsPostProcessorTest {
+    interface ItemRepository extends Repository<Object, Long> {
+        int count(boolean fail);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invocations_timedPerMethodAndException() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        ProxyFactory proxyFactory = new ProxyFactory((ItemRepository) fail -> {
+            if (fail)
+                throw new IllegalStateException();
+            return 1;
+        });
+        proxyFactory.addInterface(ItemRepository.class);
+        ItemRepository repository = (ItemRepository) new RepositoryMetricsPostProcessor(meterRegistryProvider)
+                .postProcessAfterInitialization(proxyFactory.getProxy(), "itemRepository");
+
+        repository.count(false);
+        repository.count(false);
+        assertThrows(IllegalStateException.class, () -> repository.count(true));
+        assertThrows(IllegalStateException.class, () -> repository.count(true));
+
+        assertEquals(2, meterRegistry.get("repository.invocations")
+                .tags("repository", "ItemRepository", "method", "count", "exception", "none").timer().count());
+        assertEquals(2, meterRegistry.get("repository.invocations").tag("exception", "IllegalStateException").timer().count());
+        verify(meterRegistryProvider, times(2)).getObject();
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.bootstrapbugz.auth.business;
+
+import com.app.bootstrapbugz.metrics.TimedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedPasswordEncoder passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+
+    @Test
+    void encodeAndMatches_timed() {
+        String encoded = passwordEncoder.encode("123");
+        assertTrue(passwordEncoder.matches("123", encoded));
+        assertFalse(passwordEncoder.matches("1234", encoded));
+
+        assertEquals(1, meterRegistry.timer("password.encoder", "operation", "encode").count());
+        assertEquals(2, meterRegistry.timer("password.encoder", "operation", "matches").count());
+    }
+}
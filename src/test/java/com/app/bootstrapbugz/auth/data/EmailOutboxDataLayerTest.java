@@ -0,0 +1,98 @@
+package com.app.bootstrapbugz.auth.data;
+
+import com.app.bootstrapbugz.constant.EmailOutboxStatus;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.model.email.EmailOutbox;
+import com.app.bootstrapbugz.repository.email.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class EmailOutboxDataLayerTest {
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void init() {
+        now = LocalDateTime.now();
+        emailOutboxRepository.save(new EmailOutbox("first@localhost.com", JwtPurpose.CONFIRM_REGISTRATION, "token", Locale.ENGLISH).setNextAttemptAt(now.minusMinutes(2)));
+        emailOutboxRepository.save(new EmailOutbox("second@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setNextAttemptAt(now.minusMinutes(1)));
+        emailOutboxRepository.save(new EmailOutbox("later@localhost.com", JwtPurpose.FORGOT_PASSWORD, "token", Locale.ENGLISH).setNextAttemptAt(now.plusMinutes(1)));
+        emailOutboxRepository.flush();
+    }
+
+    @Test
+    void findDueIds_onlyDueRowsInAttemptOrder() {
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        assertThat(ids).hasSize(2);
+        assertEquals("first@localhost.com", emailOutboxRepository.findById(ids.get(0)).orElseThrow().getRecipient());
+        assertThat(emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 1))).hasSize(1);
+    }
+
+    @Test
+    void claim_claimedRowsNotClaimedAgainUntilLeaseExpires() {
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        assertEquals(2, emailOutboxRepository.claim(ids, "first", now.plusMinutes(5), now));
+        assertEquals(0, emailOutboxRepository.claim(ids, "second", now.plusMinutes(5), now));
+        assertThat(emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10))).isEmpty();
+        assertThat(emailOutboxRepository.findAllByClaimToken("first")).hasSize(2);
+
+        LocalDateTime afterLease = now.plusMinutes(6);
+        assertThat(emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, afterLease, PageRequest.of(0, 10))).hasSize(3);
+    }
+
+    @Test
+    void markSentAndFailed_releaseClaim() {
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        emailOutboxRepository.claim(ids, "claim", now.plusMinutes(5), now);
+        emailOutboxRepository.markSent(ids.get(0), "claim", now);
+        emailOutboxRepository.markFailed(ids.get(1), "claim", EmailOutboxStatus.PENDING, 1, now.plusMinutes(1), "smtp down");
+
+        EmailOutbox sent = emailOutboxRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(EmailOutboxStatus.SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+        assertEquals(null, sent.getToken());
+        EmailOutbox failed = emailOutboxRepository.findById(ids.get(1)).orElseThrow();
+        assertEquals("smtp down", failed.getLastError());
+        assertEquals("token", failed.getToken());
+        assertEquals(null, failed.getClaimToken());
+        assertThat(emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void deleteFinishedCreatedBefore_pendingRowsKept() {
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        emailOutboxRepository.claim(ids, "claim", now.plusMinutes(5), now);
+        emailOutboxRepository.markSent(ids.get(0), "claim", now);
+        emailOutboxRepository.markFailed(ids.get(1), "claim", EmailOutboxStatus.FAILED, 8, now, "smtp down");
+
+        assertEquals(0, emailOutboxRepository.deleteFinishedCreatedBefore(now.minusHours(1)));
+        assertEquals(2, emailOutboxRepository.deleteFinishedCreatedBefore(now.plusMinutes(1)));
+        assertEquals(1, emailOutboxRepository.count());
+    }
+
+    @Test
+    void markSentAndFailed_leaseLost_rowUntouched() {
+        List<Long> ids = emailOutboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        emailOutboxRepository.claim(ids, "expired", now.plusMinutes(5), now);
+        emailOutboxRepository.claim(ids, "current", now.plusMinutes(11), now.plusMinutes(6));
+        emailOutboxRepository.markSent(ids.get(0), "current", now);
+
+        assertEquals(0, emailOutboxRepository.markFailed(ids.get(0), "expired", EmailOutboxStatus.PENDING, 1, now, "smtp down"));
+        assertEquals(0, emailOutboxRepository.markSent(ids.get(1), "expired", now));
+        assertEquals(EmailOutboxStatus.SENT, emailOutboxRepository.findById(ids.get(0)).orElseThrow().getStatus());
+        assertEquals("current", emailOutboxRepository.findById(ids.get(1)).orElseThrow().getClaimToken());
+    }
+}
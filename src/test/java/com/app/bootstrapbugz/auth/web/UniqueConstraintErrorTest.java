@@ -0,0 +1,56 @@
+package com.app.bootstrapbugz.auth.web;
+
+import com.app.bootstrapbugz.error.handling.CustomExceptionHandler;
+import com.app.bootstrapbugz.model.user.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UniqueConstraintErrorTest {
+    @Mock
+    private MessageSource messageSource;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private DataIntegrityViolationException violation(String constraintName) {
+        SQLException sqlException = new SQLException("Unique index or primary key violation: " + constraintName);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+
+    @Test
+    void usernameConstraint_fieldError() throws JsonProcessingException {
+        when(messageSource.getMessage(eq("username.exists"), any(), any())).thenReturn("Username already exist.");
+        ResponseEntity<Object> response = new CustomExceptionHandler(messageSource)
+                .dataIntegrityViolation(violation("PUBLIC.UK_USERS_USERNAME_INDEX_4 ON PUBLIC.USERS(USERNAME)"));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertThat(objectMapper.writeValueAsString(response.getBody())).contains("\"domain\":\"username\"", "Username already exist.");
+    }
+
+    @Test
+    void emailConstraint_fieldError() throws JsonProcessingException {
+        when(messageSource.getMessage(eq("email.exists"), any(), any())).thenReturn("Email already exist.");
+        ResponseEntity<Object> response = new CustomExceptionHandler(messageSource)
+                .dataIntegrityViolation(violation("users." + User.EMAIL_CONSTRAINT));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertThat(objectMapper.writeValueAsString(response.getBody())).contains("\"domain\":\"email\"", "Email already exist.");
+    }
+}
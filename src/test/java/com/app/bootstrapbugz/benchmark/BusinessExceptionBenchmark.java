@@ -0,0 +1,67 @@
+package com.app.bootstrapbugz.benchmark;
+
+import com.app.bootstrapbugz.constant.ErrorDomain;
+import com.app.bootstrapbugz.error.exception.BusinessException;
+import com.app.bootstrapbugz.error.exception.ResourceNotFound;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throwing and catching a ResourceNotFound from below a call stack about as deep as a request through
+ * the servlet, security and transaction layers, with and without the stack trace being filled in.
+ * Run with {@code mvn test -Dtest=BusinessExceptionBenchmark -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class BusinessExceptionBenchmark {
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 500_000;
+    private static final int STACK_DEPTH = 150;
+
+    private int caught;
+
+    @AfterEach
+    void cleanUp() {
+        BusinessException.setStackTraceEnabled(false);
+    }
+
+    @Test
+    void withStackTrace() {
+        BusinessException.setStackTraceEnabled(true);
+        measure("with stack trace");
+    }
+
+    @Test
+    void stackless() {
+        BusinessException.setStackTraceEnabled(false);
+        measure("stackless");
+    }
+
+    private void measure(String name) {
+        for (int i = 0; i < WARMUP; i++)
+            throwAndCatch();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            throwAndCatch();
+        long elapsed = System.nanoTime() - start;
+        log.info("{}: {} ns/op ({} ms total, {} caught)", name, elapsed / ITERATIONS, TimeUnit.NANOSECONDS.toMillis(elapsed), caught);
+    }
+
+    private void throwAndCatch() {
+        try {
+            descend(STACK_DEPTH);
+        } catch (ResourceNotFound e) {
+            caught++;
+        }
+    }
+
+    private static void descend(int depth) {
+        if (depth == 0)
+            throw new ResourceNotFound("User not found.", ErrorDomain.AUTH);
+        descend(depth - 1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.bootstrapbugz.benchmark;
+
+import com.app.bootstrapbugz.dto.model.email.EmailDto;
+import com.app.bootstrapbugz.service.impl.EmailServiceImpl;
+import com.app.bootstrapbugz.support.FakeSmtpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares one SMTP session per email with one session per batch against an in-process SMTP server that
+ * delays every connection to approximate the STARTTLS and AUTH handshake.
+ * Run with {@code mvn test -Dtest=EmailSendBenchmark -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EmailSendBenchmark {
+    private static final int EMAILS = 500;
+    private static final int BATCH_SIZE = 100;
+    private static final long CONNECT_DELAY_MILLIS = 20;
+
+    private final List<EmailDto> messages = IntStream.range(0, EMAILS)
+            .mapToObj(i -> new EmailDto("user" + i + "@localhost.com", "Activate Account",
+                    "Please activate your account by clicking on link.", null))
+            .collect(Collectors.toList());
+
+    @Test
+    void sessionPerEmail() throws Exception {
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer(CONNECT_DELAY_MILLIS)) {
+            EmailServiceImpl emailService = new EmailServiceImpl(smtpServer.createMailSender(), CircuitBreaker.ofDefaults("mail"));
+            long start = System.nanoTime();
+            messages.forEach(message -> emailService.sendEmail(message.getTo(), message.getSubject(), message.getText()));
+            report("session per email", start, smtpServer);
+        }
+    }
+
+    @Test
+    void sessionPerBatch() throws Exception {
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer(CONNECT_DELAY_MILLIS)) {
+            EmailServiceImpl emailService = new EmailServiceImpl(smtpServer.createMailSender(), CircuitBreaker.ofDefaults("mail"));
+            long start = System.nanoTime();
+            for (int i = 0; i < EMAILS; i += BATCH_SIZE)
+                assertTrue(emailService.sendEmails(messages.subList(i, i + BATCH_SIZE)).isEmpty());
+            report("session per batch", start, smtpServer);
+        }
+    }
+
+    private void report(String name, long start, FakeSmtpServer smtpServer) {
+        long elapsed = System.nanoTime() - start;
+        assertEquals(EMAILS, smtpServer.delivered().size());
+        log.info("{}: {} emails in {} ms over {} connections", name, EMAILS, TimeUnit.NANOSECONDS.toMillis(elapsed), smtpServer.connections());
+    }
+}
@@ -0,0 +1,57 @@
+package com.app.bootstrapbugz.benchmark;
+
+import com.app.bootstrapbugz.dto.request.auth.SignUpRequest;
+import com.app.bootstrapbugz.validator.FieldMatch;
+import com.app.bootstrapbugz.validator.impl.FieldMatchImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.beanutils.BeanUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the previous commons-beanutils based FieldMatch check with the cached MethodHandle one.
+ * Run with {@code mvn test -Dtest=FieldMatchBenchmark -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FieldMatchBenchmark {
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 500_000;
+
+    private final SignUpRequest request = new SignUpRequest("User", "User", "user", "user@localhost.com", "password", "password");
+
+    @Test
+    void beanUtils() throws Exception {
+        measure("beanutils", () -> {
+            Object first = BeanUtils.getProperty(request, "password");
+            Object second = BeanUtils.getProperty(request, "confirmPassword");
+            return first == null && second == null || first != null && first.equals(second);
+        });
+    }
+
+    @Test
+    void methodHandles() throws Exception {
+        FieldMatchImpl validator = new FieldMatchImpl();
+        validator.initialize(SignUpRequest.class.getAnnotation(FieldMatch.class));
+        measure("method handles", () -> validator.isValid(request, null));
+    }
+
+    private void measure(String name, Check check) throws Exception {
+        for (int i = 0; i < WARMUP; i++)
+            assertTrue(check.run());
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+            assertTrue(check.run());
+        long elapsed = System.nanoTime() - start;
+        log.info("{}: {} ns/op ({} ms total)", name, elapsed / ITERATIONS, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean run() throws Exception;
+    }
+}
@@ -0,0 +1,136 @@
+package com.app.bootstrapbugz.benchmark;
+
+import com.app.bootstrapbugz.model.user.User;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Inserts 100k users with the IDENTITY strategy the User entity used to have and with the pooled
+ * sequence it has now. The IDENTITY variant is mapped in {@code benchmark/identity-user-orm.xml} and lives in its own
+ * persistence unit, so other test contexts do not pick it up. Run with
+ * {@code mvn test -Dtest=UserInsertBenchmark -Dbenchmark=true}.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class UserInsertBenchmark {
+    private static final int USERS = 100_000;
+    private static final int USERS_PER_TRANSACTION = 1_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void identity() {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPersistenceUnitName("identityBenchmark");
+        factoryBean.setPackagesToScan();
+        factoryBean.setMappingResources("benchmark/identity-user-orm.xml");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", BATCH_SIZE,
+                "hibernate.generate_statistics", true));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory identityEntityManagerFactory = factoryBean.getObject();
+        try {
+            insert("IDENTITY", identityEntityManagerFactory, new JpaTransactionManager(identityEntityManagerFactory), this::identityUser);
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private IdentityUser identityUser(int i) {
+        return new IdentityUser()
+                .setFirstName("Identity")
+                .setLastName("Identity")
+                .setUsername("identity" + i)
+                .setEmail("identity" + i + "@localhost.com")
+                .setPassword("$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre");
+    }
+
+    @Test
+    void pooledSequence() {
+        insert("pooled sequence", entityManagerFactory, transactionManager, i -> new User()
+                .setFirstName("Pooled")
+                .setLastName("Pooled")
+                .setUsername("pooled" + i)
+                .setEmail("pooled" + i + "@localhost.com")
+                .setPassword("$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre"));
+    }
+
+    private void insert(String strategy, EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+                        IntFunction<Object> userFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < USERS; from += USERS_PER_TRANSACTION) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                entityManager.joinTransaction();
+                for (int i = first; i < first + USERS_PER_TRANSACTION; i++) {
+                    entityManager.persist(userFactory.apply(i));
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.close();
+            });
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("{}: inserted {} users in {} ms ({} statements prepared)",
+                strategy, USERS, elapsed, statistics.getPrepareStatementCount());
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @Accessors(chain = true)
+    public static class IdentityUser {
+        private Long id;
+        private String firstName;
+        private String lastName;
+        private String username;
+        private String email;
+        private String password;
+        private LocalDateTime updatedAt = LocalDateTime.now();
+        private LocalDateTime logoutFromAllDevicesAt = LocalDateTime.now();
+        private boolean activated = false;
+        private boolean nonLocked = true;
+    }
+}
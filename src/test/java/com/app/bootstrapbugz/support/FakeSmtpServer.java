@@ -0,0 +1,124 @@
+package com.app.bootstrapbugz.support;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server. Recipients containing "reject" are refused and every new connection
+ * can be delayed to stand in for the STARTTLS and AUTH round trips of a real server.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long connectDelayMillis;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    public FakeSmtpServer(long connectDelayMillis) throws IOException {
+        this.connectDelayMillis = connectDelayMillis;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        executor.execute(this::accept);
+    }
+
+    public JavaMailSenderImpl createMailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(serverSocket.getInetAddress().getHostAddress());
+        mailSender.setPort(serverSocket.getLocalPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "bootstrapbugz@localhost.com");
+        return mailSender;
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public List<String> delivered() {
+        synchronized (delivered) {
+            return new ArrayList<>(delivered);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                executor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            Thread.sleep(connectDelayMillis);
+            reply(out, "220 localhost ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO")) {
+                    if (command.contains("REJECT")) {
+                        reply(out, "550 Mailbox unavailable");
+                    } else {
+                        recipients.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+                        reply(out, "250 OK");
+                    }
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    while ((line = reader.readLine()) != null && !line.equals("."))
+                        ;
+                    delivered.addAll(recipients);
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RSET")) {
+                    recipients.clear();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else if (command.startsWith("MAIL FROM") || command.startsWith("NOOP")) {
+                    reply(out, "250 OK");
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
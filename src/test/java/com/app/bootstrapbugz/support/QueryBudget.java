@@ -0,0 +1,56 @@
+package com.app.bootstrapbugz.support;
+
+import com.app.bootstrapbugz.metrics.QueryStats;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts how many JDBC statements an operation executes, as counted by the instrumented data source
+ * ({@code jdbc.instrumentation.enabled=true}). A batch counts as one statement. Operations that leave dirty entities
+ * behind should flush inside the operation so their writes are counted.
+ */
+public final class QueryBudget {
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private QueryBudget() {
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static QueryStats assertExactly(int expected, Operation operation) throws Exception {
+        QueryStats stats = measure(operation);
+        if (stats.getCount() != expected)
+            fail(describe("Expected exactly " + expected, stats));
+        return stats;
+    }
+
+    public static QueryStats assertAtMost(int budget, Operation operation) throws Exception {
+        QueryStats stats = measure(operation);
+        if (stats.getCount() > budget)
+            fail(describe("Expected at most " + budget, stats));
+        return stats;
+    }
+
+    private static QueryStats measure(Operation operation) throws Exception {
+        QueryStats stats = QueryStats.begin("test");
+        try {
+            operation.run();
+        } finally {
+            QueryStats.end();
+        }
+        return stats;
+    }
+
+    private static String describe(String expectation, QueryStats stats) {
+        StringBuilder message = new StringBuilder(expectation).append(" statements but ").append(stats.getCount()).append(" ran:");
+        for (Map.Entry<String, Integer> execution : stats.getExecutions().entrySet())
+            message.append(System.lineSeparator()).append("  ").append(execution.getValue()).append(" x ")
+                    .append(execution.getKey(), 0, Math.min(execution.getKey().length(), MAX_SQL_LENGTH));
+        return message.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.bootstrapbugz.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Records every SQL statement Hibernate prepares. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.app.bootstrapbugz.support.SqlStatementRecorder";
+
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    public static List<String> statements(String type) {
+        String prefix = type.toLowerCase(Locale.ROOT);
+        return statements().stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,119 @@
+package com.app.bootstrapbugz.user.business;
+
+import com.app.bootstrapbugz.dto.request.user.ChangePasswordRequest;
+import com.app.bootstrapbugz.validator.FieldMatch;
+import com.app.bootstrapbugz.validator.impl.FieldMatchImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FieldMatchTest {
+    private Validator validator;
+
+    @BeforeEach
+    void init() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void matchingPasswords_valid() {
+        assertTrue(validator.validate(new ChangePasswordRequest("123", "1234", "1234")).isEmpty());
+    }
+
+    @Test
+    void differentPasswords_invalid() {
+        Set<ConstraintViolation<ChangePasswordRequest>> violations = validator.validate(new ChangePasswordRequest("123", "1234", "4321"));
+        assertEquals(1, violations.size());
+        assertEquals("Passwords do not match.", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    void missingConfirmation_invalid() {
+        assertEquals(1, validator.validate(new ChangePasswordRequest("123", "1234", null)).size());
+    }
+
+    @Test
+    void getterThrowsException_valid() {
+        assertTrue(fieldMatch().isValid(new Throwing(new IllegalStateException()), null));
+    }
+
+    @Test
+    void getterThrowsError_propagated() {
+        assertThrows(OutOfMemoryError.class, () -> fieldMatch().isValid(new Throwing(new OutOfMemoryError()), null));
+    }
+
+    private FieldMatchImpl fieldMatch() {
+        FieldMatchImpl fieldMatch = new FieldMatchImpl();
+        fieldMatch.initialize(Throwing.class.getAnnotation(FieldMatch.class));
+        return fieldMatch;
+    }
+
+    @FieldMatch(first = "value", second = "confirmValue")
+    public static class Throwing {
+        private final Throwable thrown;
+
+        Throwing(Throwable thrown) {
+            this.thrown = thrown;
+        }
+
+        public String getValue() {
+            if (thrown instanceof Error)
+                throw (Error) thrown;
+            throw (RuntimeException) thrown;
+        }
+
+        public String getConfirmValue() {
+            return "value";
+        }
+    }
+
+    @Test
+    void nonPublicClass_mismatchInvalid() {
+        assertEquals(1, validator.validate(new NonPublic("1234", "4321")).size());
+    }
+
+    @Test
+    void unknownField_throws() {
+        FieldMatchImpl fieldMatch = new FieldMatchImpl();
+        fieldMatch.initialize(Misspelled.class.getAnnotation(FieldMatch.class));
+        assertThrows(IllegalStateException.class, () -> fieldMatch.isValid(new Misspelled(), null));
+    }
+
+    @FieldMatch(first = "password", second = "confirmPassword", message = "{password.doNotMatch}")
+    static class NonPublic {
+        private final String password;
+        private final String confirmPassword;
+
+        NonPublic(String password, String confirmPassword) {
+            this.password = password;
+            this.confirmPassword = confirmPassword;
+        }
+
+        String getPassword() {
+            return password;
+        }
+
+        String getConfirmPassword() {
+            return confirmPassword;
+        }
+    }
+
+    @FieldMatch(first = "password", second = "confirmPasword")
+    public static class Misspelled {
+        public String getPassword() {
+            return "1234";
+        }
+
+        public String getConfirmPassword() {
+            return "4321";
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.app.bootstrapbugz.user.business;
+
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExistenceFilterTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExistenceFilter userExistenceFilter;
+
+    @BeforeEach
+    void init() {
+        userExistenceFilter = new UserExistenceFilter(userRepository, transactionManager, 1000, 0.01);
+    }
+
+    private void load() {
+        when(userRepository.streamUsernamesAndEmails()).thenReturn(Stream.of(
+                new Object[]{"admin", "admin@localhost.com"},
+                new Object[]{"user", "user@localhost.com"}));
+        userExistenceFilter.load();
+    }
+
+    @Test
+    void isUsernameTaken_notLoaded_queriesDatabase() {
+        when(userRepository.existsByUsername("unknown")).thenReturn(false);
+        assertFalse(userExistenceFilter.isUsernameTaken("unknown"));
+        verify(userRepository, times(1)).existsByUsername("unknown");
+    }
+
+    @Test
+    void isUsernameTaken_loadedAndMissing_skipsDatabase() {
+        load();
+        IntStream.range(0, 100).forEach(i -> userExistenceFilter.isUsernameTaken("unknown" + i));
+        verify(userRepository, atMost(5)).existsByUsername(anyString());
+    }
+
+    @Test
+    void isUsernameTaken_loadedAndPresent_confirmedByDatabase() {
+        load();
+        when(userRepository.existsByUsername("Admin")).thenReturn(true);
+        assertTrue(userExistenceFilter.isUsernameTaken("Admin"));
+    }
+
+    @Test
+    void isEmailTaken_addedAfterLoad_confirmedByDatabase() {
+        load();
+        userExistenceFilter.put("new", "new@localhost.com");
+        when(userRepository.existsByEmail("new@localhost.com")).thenReturn(true);
+        assertTrue(userExistenceFilter.isEmailTaken("new@localhost.com"));
+        assertFalse(userExistenceFilter.isEmailTaken("other@localhost.com"));
+        verify(userRepository, never()).existsByEmail("other@localhost.com");
+    }
+}
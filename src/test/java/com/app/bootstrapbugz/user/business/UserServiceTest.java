@@ -1,5 +1,6 @@
 package com.app.bootstrapbugz.user.business;
 
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
 import com.app.bootstrapbugz.dto.model.user.UserDto;
 import com.app.bootstrapbugz.dto.request.user.ChangePasswordRequest;
 import com.app.bootstrapbugz.dto.request.user.EditUserRequest;
@@ -39,6 +40,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,6 +62,8 @@ public class UserServiceTest {
     private SecurityContext securityContext;
     @Mock
     private JwtUtilities jwtUtilities;
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -122,15 +127,16 @@ public class UserServiceTest {
         authentication_withUser();
         EditUserRequest editUserRequest = new EditUserRequest("Test", "Test", "test", "test@localhost.com");
         when(userRepository.findByUsername("user")).thenReturn(Optional.ofNullable(user));
-        when(userRepository.existsByUsername(editUserRequest.getUsername())).thenReturn(false);
-        when(userRepository.existsByEmail(editUserRequest.getEmail())).thenReturn(false);
+        when(userExistenceFilter.isUsernameTaken(editUserRequest.getUsername())).thenReturn(false);
+        when(userExistenceFilter.isEmailTaken(editUserRequest.getEmail())).thenReturn(false);
         User expectedUser = expectedEditedUser(editUserRequest);
-        when(userRepository.save(any(User.class))).thenReturn(expectedUser);
         UserDto returnedUser = userService.edit(editUserRequest);
         assertThat(returnedUser).isNotNull();
-        assertEquals(returnedUser.getUsername(), user.getUsername());
-        assertEquals(returnedUser.getEmail(), user.getEmail());
-        assertEquals(returnedUser.isActivated(), user.isActivated());
+        assertEquals(expectedUser.getFirstName(), returnedUser.getFirstName());
+        assertEquals(expectedUser.getUsername(), returnedUser.getUsername());
+        assertEquals(expectedUser.getEmail(), returnedUser.getEmail());
+        assertEquals(expectedUser.isActivated(), returnedUser.isActivated());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     private User expectedEditedUser(EditUserRequest editUserRequest) {
@@ -157,7 +163,7 @@ public class UserServiceTest {
         authentication_withUser();
         EditUserRequest editUserRequest = new EditUserRequest("Test", "Test", "admin", "test@localhost.com");
         when(userRepository.findByUsername("user")).thenReturn(Optional.ofNullable(user));
-        when(userRepository.existsByUsername(editUserRequest.getUsername())).thenReturn(true);
+        when(userExistenceFilter.isUsernameTaken(editUserRequest.getUsername())).thenReturn(true);
         assertThrows(BadRequestException.class, () -> userService.edit(editUserRequest));
     }
 
@@ -166,7 +172,7 @@ public class UserServiceTest {
         authentication_withUser();
         EditUserRequest editUserRequest = new EditUserRequest("Test", "Test", "test", "admin@localhost.com");
         when(userRepository.findByUsername("user")).thenReturn(Optional.ofNullable(user));
-        when(userRepository.existsByEmail(editUserRequest.getEmail())).thenReturn(true);
+        when(userExistenceFilter.isEmailTaken(editUserRequest.getEmail())).thenReturn(true);
         assertThrows(BadRequestException.class, () -> userService.edit(editUserRequest));
     }
 
@@ -175,7 +181,6 @@ public class UserServiceTest {
         authentication_withUser();
         EditUserRequest editUserRequest = new EditUserRequest("User", "User", "user", "user@localhost.com");
         when(userRepository.findByUsername("user")).thenReturn(Optional.ofNullable(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
         UserDto noChangesUser = userService.edit(editUserRequest);
         assertThat(noChangesUser).isNotNull();
         assertEquals(noChangesUser.getUsername(), user.getUsername());
@@ -0,0 +1,116 @@
+package com.app.bootstrapbugz.user.data;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.app.bootstrapbugz.metrics.InstrumentedDataSource;
+import com.app.bootstrapbugz.metrics.QueryStats;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InstrumentedDataSourceTest {
+    private static final String SELECT = "SELECT id FROM item WHERE id = ?";
+
+    private final Logger nPlusOneLog = (Logger) LoggerFactory.getLogger("jdbc.n-plus-one");
+    private final ListAppender<ILoggingEvent> nPlusOneEvents = new ListAppender<>();
+    private InstrumentedDataSource dataSource;
+
+    @BeforeEach
+    void init() throws SQLException {
+        JdbcDataSource target = new JdbcDataSource();
+        target.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        dataSource = new InstrumentedDataSource(target, 200, 3);
+        try (Connection connection = target.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS item (id BIGINT PRIMARY KEY)");
+        }
+        nPlusOneEvents.start();
+        nPlusOneLog.addAppender(nPlusOneEvents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryStats.end();
+        nPlusOneLog.detachAppender(nPlusOneEvents);
+    }
+
+    private void executeRepeatedly(String sql, int times) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 0; id < times; id++) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setLong(1, id);
+                    statement.execute();
+                }
+            }
+        }
+    }
+
+    @Test
+    void repeatedQuery_reportedOnce() throws SQLException {
+        QueryStats.begin("GET /items");
+        executeRepeatedly(SELECT, 6);
+        assertEquals(1, nPlusOneEvents.list.size());
+    }
+
+    @Test
+    void repeatedUpdate_notReported() throws SQLException {
+        QueryStats.begin("PUT /items");
+        executeRepeatedly("UPDATE item SET id = id WHERE id = ?", 6);
+        assertEquals(0, nPlusOneEvents.list.size());
+    }
+
+    @Test
+    void statementsRecordedInQueryStats() throws SQLException {
+        QueryStats stats = QueryStats.begin("GET /items");
+        try (Connection connection = dataSource.getConnection()) {
+            for (long id = 0; id < 5; id++) {
+                try (PreparedStatement statement = connection.prepareStatement(SELECT)) {
+                    statement.setLong(1, id);
+                    statement.executeQuery().close();
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT COUNT(*) FROM item");
+            }
+        }
+
+        assertEquals(6, stats.getCount());
+        assertEquals(5, stats.getExecutions(SELECT));
+        assertEquals(1, stats.getExecutions("SELECT COUNT(*) FROM item"));
+        assertTrue(stats.getTotalNanos() >= stats.getSlowestNanos());
+        assertTrue(stats.getSlowestSql().startsWith("SELECT"));
+    }
+
+    @Test
+    void statementBatch_recordedAsBatch() throws SQLException {
+        QueryStats stats = QueryStats.begin("PUT /items");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.addBatch("UPDATE item SET id = id WHERE id = 1");
+            statement.addBatch("UPDATE item SET id = id WHERE id = 2");
+            statement.executeBatch();
+        }
+
+        assertEquals(1, stats.getCount());
+        assertEquals(1, stats.getExecutions(InstrumentedDataSource.BATCH));
+    }
+
+    @Test
+    void outsideRequest_notRecorded() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setLong(1, 1);
+            statement.executeQuery().close();
+        }
+        QueryStats stats = QueryStats.begin("GET /items");
+        assertEquals(0, stats.getCount());
+    }
+}
@@ -0,0 +1,225 @@
+package com.app.bootstrapbugz.user.data;
+
+import com.app.bootstrapbugz.cache.EmailRateLimiter;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
+import com.app.bootstrapbugz.config.JdbcInstrumentationConfig;
+import com.app.bootstrapbugz.constant.JwtPurpose;
+import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
+import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
+import com.app.bootstrapbugz.dto.request.auth.ForgotPasswordRequest;
+import com.app.bootstrapbugz.dto.request.auth.ResendConfirmationEmailRequest;
+import com.app.bootstrapbugz.dto.request.auth.ResetPasswordRequest;
+import com.app.bootstrapbugz.dto.request.auth.SignUpRequest;
+import com.app.bootstrapbugz.dto.request.user.ChangePasswordRequest;
+import com.app.bootstrapbugz.dto.request.user.EditUserRequest;
+import com.app.bootstrapbugz.event.listener.OnSendJwtEmailListener;
+import com.app.bootstrapbugz.hal.user.UserDtoModelAssembler;
+import com.app.bootstrapbugz.model.user.RoleName;
+import com.app.bootstrapbugz.model.user.User;
+import com.app.bootstrapbugz.repository.user.UserRepository;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.app.bootstrapbugz.service.impl.AdminServiceImpl;
+import com.app.bootstrapbugz.service.impl.AuthServiceImpl;
+import com.app.bootstrapbugz.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.app.bootstrapbugz.support.QueryBudget.assertAtMost;
+import static com.app.bootstrapbugz.support.QueryBudget.assertExactly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({JdbcInstrumentationConfig.class, UserServiceImpl.class, AdminServiceImpl.class, AuthServiceImpl.class,
+        EmailRateLimiter.class, OnSendJwtEmailListener.class})
+public class QueryBudgetTest {
+    private static final String HASH = "$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre";
+
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private AuthServiceImpl authService;
+    @Autowired
+    private AdminServiceImpl adminService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserDtoModelAssembler assembler;
+    @MockBean
+    private JwtUtilities jwtUtilities;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private UserExistenceFilter userExistenceFilter;
+
+    @BeforeEach
+    void init() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", null));
+        entityManager.clear();
+        when(passwordEncoder.encode(anyString())).thenReturn(HASH);
+        when(jwtUtilities.createToken(any(User.class), any(JwtPurpose.class))).thenReturn("token");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * The test transaction is rolled back, so before-commit work such as the email outbox insert is triggered here,
+     * and pending writes are flushed, to count them as part of the operation.
+     */
+    private void beforeCommit() {
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        entityManager.flush();
+    }
+
+    private static List<String> usernames(int count) {
+        List<String> usernames = IntStream.range(0, count).mapToObj(i -> "missing" + i).collect(Collectors.toList());
+        usernames.set(0, "user");
+        return usernames;
+    }
+
+    @Test
+    void findByUsername_oneQuery() throws Exception {
+        assertExactly(1, () -> userService.findByUsername("user"));
+    }
+
+    @Test
+    void findAll_oneQuery() throws Exception {
+        assertExactly(1, () -> userService.findAll());
+    }
+
+    @Test
+    void findAllByUsernameInChunks_oneQueryPerChunk() throws Exception {
+        assertExactly(3, () -> userRepository.findAllByUsernameInChunks(usernames(2500)));
+    }
+
+    @Test
+    void edit_selectAndUpdate() throws Exception {
+        assertExactly(2, () -> {
+            userService.edit(new EditUserRequest("Changed", "Changed", "user", "decrescendo807@gmail.com"));
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void lockUsers_thousandUsers_oneUpdate() throws Exception {
+        assertExactly(1, () -> adminService.lockUsers(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void lockUsers_moreUsersThanChunkSize_oneUpdatePerChunk() throws Exception {
+        assertExactly(3, () -> adminService.lockUsers(new AdminRequest(usernames(2500))));
+    }
+
+    @Test
+    void logoutUsersFromAllDevices_thousandUsers_oneUpdate() throws Exception {
+        assertExactly(1, () -> adminService.logoutUsersFromAllDevices(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void changeUsersRole_thousandUsers_rolesResolvedOnce() throws Exception {
+        assertAtMost(4, () -> adminService.changeUsersRole(
+                new ChangeRoleRequest(usernames(1000), Collections.singletonList(RoleName.ROLE_ADMIN))));
+    }
+
+    @Test
+    void deleteUsers_thousandUsers_rolesAndUsersDeleted() throws Exception {
+        assertExactly(2, () -> adminService.deleteUsers(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void unlockUsers_thousandUsers_oneUpdate() throws Exception {
+        assertExactly(1, () -> adminService.unlockUsers(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void activateUser_thousandUsers_oneUpdate() throws Exception {
+        assertExactly(1, () -> adminService.activateUser(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void deactivateUser_thousandUsers_oneUpdate() throws Exception {
+        assertExactly(1, () -> adminService.deactivateUser(new AdminRequest(usernames(1000))));
+    }
+
+    @Test
+    void signUp_roleUserAndOutboxInserts() throws Exception {
+        // role lookup, user, user_roles and outbox inserts; a pooled sequence is called twice on its first use
+        assertAtMost(8, () -> {
+            authService.signUp(new SignUpRequest("Budget", "Budget", "budget", "budget@localhost.com", "123", "123"));
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void confirmRegistration_selectAndUpdate() throws Exception {
+        when(jwtUtilities.getSubject("token")).thenReturn("not_activated");
+        assertExactly(2, () -> {
+            authService.confirmRegistration("token");
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void resendConfirmationEmail_selectAndOutboxInsert() throws Exception {
+        assertAtMost(3, () -> {
+            authService.resendConfirmationEmail(new ResendConfirmationEmailRequest("not_activated"));
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void forgotPassword_selectAndOutboxInsert() throws Exception {
+        assertAtMost(3, () -> {
+            authService.forgotPassword(new ForgotPasswordRequest("decrescendo807@gmail.com"));
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void resetPassword_selectAndUpdate() throws Exception {
+        when(jwtUtilities.getSubject("token")).thenReturn("user");
+        assertExactly(2, () -> {
+            authService.resetPassword(new ResetPasswordRequest("token", "1234", "1234"));
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void changePassword_selectAndUpdate() throws Exception {
+        when(passwordEncoder.matches("123", HASH)).thenReturn(true);
+        assertExactly(2, () -> {
+            userService.changePassword(new ChangePasswordRequest("123", "1234", "1234"));
+            beforeCommit();
+        });
+    }
+
+    @Test
+    void logoutFromAllDevices_selectAndUpdate() throws Exception {
+        assertExactly(2, () -> {
+            userService.logoutFromAllDevices();
+            beforeCommit();
+        });
+    }
+}
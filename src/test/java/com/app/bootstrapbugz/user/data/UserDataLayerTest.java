@@ -8,12 +8,18 @@ import com.app.bootstrapbugz.repository.user.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -38,7 +44,17 @@ public class UserDataLayerTest {
     @Test
     void findAllUsersByUsernameIn() {
         List<String> usernames = Arrays.asList("user", "admin");
-        List<User> users = userRepository.findAllByUsernameIn(usernames);
+        List<User> users = userRepository.findAllByNormalizedUsernameIn(usernames);
+        assertThat(users).hasSize(2);
+    }
+
+    @Test
+    void findAllUsersByUsernameInChunks() {
+        List<String> usernames = IntStream.range(0, 2500).mapToObj(i -> "missing" + i).collect(Collectors.toList());
+        usernames.add("user");
+        usernames.add("admin");
+        usernames.add("user");
+        List<User> users = userRepository.findAllByUsernameInChunks(usernames);
         assertThat(users).hasSize(2);
     }
 
@@ -54,6 +70,37 @@ public class UserDataLayerTest {
         assertEquals("Admin", user.getFirstName());
     }
 
+    @Test
+    void findUserByUsernameAndEmail_ignoresCaseAndSurroundingWhitespace() {
+        assertEquals("admin", userRepository.findByUsername(" ADMIN ").orElseThrow().getUsername());
+        assertEquals("admin", userRepository.findByEmail("Skill.Potion21@Gmail.com").orElseThrow().getUsername());
+        assertTrue(userRepository.existsByUsername("Admin"));
+    }
+
+    @Test
+    void saveUser_normalizedColumnsWritten() {
+        User user = userRepository.saveAndFlush(new User()
+                .setFirstName("Mixed")
+                .setLastName("Case")
+                .setUsername("MixedCase")
+                .setEmail("Mixed.Case@Localhost.com")
+                .setPassword("123"));
+        assertEquals("mixedcase", user.getNormalizedUsername());
+        assertEquals("mixed.case@localhost.com", user.getNormalizedEmail());
+    }
+
+    @Test
+    void saveUser_usernameDifferingOnlyInCase_violatesNamedConstraint() {
+        User user = new User()
+                .setFirstName("Admin")
+                .setLastName("Admin")
+                .setUsername("ADMIN")
+                .setEmail("unique@localhost.com")
+                .setPassword("123");
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user));
+        assertThat(ex.getMostSpecificCause().getMessage().toLowerCase()).contains(User.USERNAME_CONSTRAINT);
+    }
+
     @Test
     void userExistsByEmail() {
         boolean found = userRepository.existsByEmail("skill.potion21@gmail.com");
@@ -66,6 +113,45 @@ public class UserDataLayerTest {
         assertTrue(found);
     }
 
+    @Test
+    void saveUser_duplicateUsername_violatesNamedConstraint() {
+        User user = new User()
+                .setFirstName("Admin")
+                .setLastName("Admin")
+                .setUsername("admin")
+                .setEmail("unique@localhost.com")
+                .setPassword("123");
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAndFlush(user));
+        assertThat(ex.getMostSpecificCause().getMessage().toLowerCase()).contains(User.USERNAME_CONSTRAINT);
+    }
+
+    @Test
+    void lockUsersByUsernameIn() {
+        LocalDateTime now = LocalDateTime.now();
+        int affected = userRepository.updateNonLockedByUsernameIn(Arrays.asList("user", "not_activated", "unknown"), false, now);
+        assertEquals(2, affected);
+        User user = userRepository.findByUsername("user").orElseThrow();
+        assertFalse(user.isNonLocked());
+        assertEquals(now, user.getUpdatedAt());
+    }
+
+    @Test
+    void changeRolesByUsernameIn() {
+        List<String> usernames = Arrays.asList("user", "not_activated");
+        assertEquals(2, userRepository.deleteRolesByUsernameIn(usernames));
+        assertEquals(4, userRepository.insertRolesByUsernameIn(usernames, Arrays.asList(1L, 2L)));
+        User user = userRepository.findByUsername("user").orElseThrow();
+        assertThat(user.getRoles()).hasSize(2);
+    }
+
+    @Test
+    void deleteUsersByUsernameIn() {
+        List<String> usernames = Arrays.asList("user", "not_activated", "unknown");
+        assertEquals(2, userRepository.deleteRolesByUsernameIn(usernames));
+        assertEquals(2, userRepository.deleteByUsernameIn(usernames));
+        assertThat(userRepository.findAll()).hasSize(2);
+    }
+
     @Test
     void findAllRoles() {
         List<Role> roles = roleRepository.findAll();
@@ -0,0 +1,120 @@
+package com.app.bootstrapbugz.user.data;
+
+import com.app.bootstrapbugz.cache.EmailRateLimiter;
+import com.app.bootstrapbugz.cache.UserExistenceFilter;
+import com.app.bootstrapbugz.dto.request.auth.ResetPasswordRequest;
+import com.app.bootstrapbugz.dto.request.user.ChangePasswordRequest;
+import com.app.bootstrapbugz.dto.request.user.EditUserRequest;
+import com.app.bootstrapbugz.hal.user.UserDtoModelAssembler;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.app.bootstrapbugz.service.impl.AuthServiceImpl;
+import com.app.bootstrapbugz.service.impl.UserServiceImpl;
+import com.app.bootstrapbugz.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+@Import({UserServiceImpl.class, AuthServiceImpl.class, EmailRateLimiter.class})
+public class UserUpdateSqlTest {
+    private static final Pattern SET_CLAUSE = Pattern.compile("(?i)^update users set (.+) where user_id=\\?$");
+
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private AuthServiceImpl authService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private UserDtoModelAssembler assembler;
+    @MockBean
+    private JwtUtilities jwtUtilities;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private UserExistenceFilter userExistenceFilter;
+
+    @BeforeEach
+    void init() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", null));
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
+        SqlStatementRecorder.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void assertSingleSelectAndUpdateOf(String... columns) {
+        entityManager.flush();
+        assertEquals(1, SqlStatementRecorder.statements("select").size());
+        List<String> updates = SqlStatementRecorder.statements("update");
+        assertEquals(1, updates.size());
+        Matcher matcher = SET_CLAUSE.matcher(updates.get(0).trim());
+        assertEquals(true, matcher.matches(), updates.get(0));
+        Set<String> updatedColumns = new TreeSet<>();
+        for (String assignment : matcher.group(1).split(","))
+            updatedColumns.add(assignment.trim().replace("=?", ""));
+        assertEquals(new TreeSet<>(Arrays.asList(columns)), updatedColumns);
+    }
+
+    @Test
+    void logoutFromAllDevices_updatesLogoutColumnOnly() {
+        userService.logoutFromAllDevices();
+        assertSingleSelectAndUpdateOf("logout_from_all_devices_at");
+    }
+
+    @Test
+    void changePassword_updatesPasswordAndUpdatedAt() {
+        when(passwordEncoder.matches("123", "$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre")).thenReturn(true);
+        userService.changePassword(new ChangePasswordRequest("123", "1234", "1234"));
+        assertSingleSelectAndUpdateOf("password", "updated_at");
+    }
+
+    @Test
+    void edit_namesOnly_updatesNameColumns() {
+        userService.edit(new EditUserRequest("Changed", "Changed", "user", "decrescendo807@gmail.com"));
+        assertSingleSelectAndUpdateOf("first_name", "last_name");
+    }
+
+    @Test
+    void edit_username_updatesUsernameAndNormalizedUsername() {
+        userService.edit(new EditUserRequest("User", "User", "Renamed", "decrescendo807@gmail.com"));
+        assertSingleSelectAndUpdateOf("username", "normalized_username", "updated_at");
+    }
+
+    @Test
+    void confirmRegistration_updatesActivatedAndUpdatedAt() {
+        when(jwtUtilities.getSubject("token")).thenReturn("not_activated");
+        authService.confirmRegistration("token");
+        assertSingleSelectAndUpdateOf("activated", "updated_at");
+    }
+
+    @Test
+    void resetPassword_updatesPasswordAndUpdatedAt() {
+        when(jwtUtilities.getSubject("token")).thenReturn("user");
+        authService.resetPassword(new ResetPasswordRequest("token", "1234", "1234"));
+        assertSingleSelectAndUpdateOf("password", "updated_at");
+    }
+}
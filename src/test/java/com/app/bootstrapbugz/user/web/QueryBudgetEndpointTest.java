@@ -0,0 +1,141 @@
+package com.app.bootstrapbugz.user.web;
+
+import com.app.bootstrapbugz.dto.request.admin.AdminRequest;
+import com.app.bootstrapbugz.dto.request.admin.ChangeRoleRequest;
+import com.app.bootstrapbugz.dto.request.auth.ForgotPasswordRequest;
+import com.app.bootstrapbugz.dto.request.auth.LoginRequest;
+import com.app.bootstrapbugz.dto.request.auth.ResendConfirmationEmailRequest;
+import com.app.bootstrapbugz.model.user.RoleName;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.app.bootstrapbugz.support.QueryBudget.assertAtMost;
+import static com.app.bootstrapbugz.support.QueryBudget.assertExactly;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public class QueryBudgetEndpointTest {
+    private static final String PATH = "/api/users";
+    private static final String ADMIN_PATH = "/api/admin/users";
+    // unknown usernames keep the admin endpoints free of side effects on the shared test data
+    private static final AdminRequest ADMIN_REQUEST = new AdminRequest(Arrays.asList("missing0", "missing1"));
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String login() throws Exception {
+        return login("user");
+    }
+
+    private String login(String username) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, "123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(JwtUtilities.HEADER);
+    }
+
+    @Test
+    void login_oneQuery() throws Exception {
+        assertExactly(1, this::login);
+    }
+
+    @Test
+    void findUserByUsername_authorizationAndLookup() throws Exception {
+        String token = login();
+        assertExactly(2, () -> mockMvc.perform(get(PATH + "/{username}", "admin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, token))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void findAllUsers_rolesFetchedWithUsers() throws Exception {
+        String token = login();
+        assertExactly(2, () -> mockMvc.perform(get(PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, token))
+                .andExpect(status().isOk()));
+    }
+
+    private void assertAdminRequest(int expected, MockHttpServletRequestBuilder request, Object body) throws Exception {
+        String token = login("admin");
+        assertExactly(expected, () -> mockMvc.perform(request
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, token)
+                .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(0)));
+    }
+
+    @Test
+    void logoutUsersFromAllDevices_authorizationAndUpdate() throws Exception {
+        assertAdminRequest(2, get(ADMIN_PATH + "/logout"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void changeUsersRole_authorizationRolesAndUsers() throws Exception {
+        ChangeRoleRequest changeRoleRequest = new ChangeRoleRequest(ADMIN_REQUEST.getUsernames(),
+                Collections.singletonList(RoleName.ROLE_USER));
+        assertAdminRequest(5, put(ADMIN_PATH + "/role"), changeRoleRequest);
+    }
+
+    @Test
+    void lockUsers_authorizationAndUpdate() throws Exception {
+        assertAdminRequest(2, put(ADMIN_PATH + "/lock"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void unlockUsers_authorizationAndUpdate() throws Exception {
+        assertAdminRequest(2, put(ADMIN_PATH + "/unlock"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void activateUsers_authorizationAndUpdate() throws Exception {
+        assertAdminRequest(2, put(ADMIN_PATH + "/activate"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void deactivateUsers_authorizationAndUpdate() throws Exception {
+        assertAdminRequest(2, put(ADMIN_PATH + "/deactivate"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void deleteUsers_authorizationAndDeletes() throws Exception {
+        assertAdminRequest(3, delete(ADMIN_PATH + "/delete"), ADMIN_REQUEST);
+    }
+
+    @Test
+    void resendConfirmationEmail_alreadyActivated_oneQuery() throws Exception {
+        assertExactly(1, () -> mockMvc.perform(post("/api/auth/resend-confirmation-email")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ResendConfirmationEmailRequest("user"))))
+                .andExpect(status().isForbidden()));
+    }
+
+    @Test
+    void forgotPassword_unknownEmail_atMostOneQuery() throws Exception {
+        assertAtMost(1, () -> mockMvc.perform(post("/api/auth/forgot-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ForgotPasswordRequest("missing@localhost.com"))))
+                .andExpect(status().isNotFound()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.bootstrapbugz.user.web;
+
+import com.app.bootstrapbugz.dto.request.auth.LoginRequest;
+import com.app.bootstrapbugz.metrics.ServerTimingFilter;
+import com.app.bootstrapbugz.metrics.ServerTimingInterceptor;
+import com.app.bootstrapbugz.security.jwt.JwtUtilities;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server-timing.enabled=true")
+@AutoConfigureMockMvc
+public class ServerTimingTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void findUserByUsername_serverTimingReported() throws Exception {
+        MockHttpServletResponse login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("user", "123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(login.getHeader(ServerTimingFilter.HEADER)).contains("password;dur=", "db;dur=", "total;dur=");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/users/{username}", "user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(JwtUtilities.HEADER, login.getHeader(JwtUtilities.HEADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("user"))
+                .andReturn().getResponse();
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .contains("jwt;dur=", "user;dur=", "handler;dur=", "mapping;dur=", "hateoas;dur=", "serialization;dur=", "total;dur=")
+                .containsPattern("db;dur=[0-9.]+;desc=\"[1-9][0-9]* queries\"");
+    }
+
+    @Test
+    void serverTimingDisabled_interceptorNotRegistered() {
+        WebApplicationContextRunner contextRunner = new WebApplicationContextRunner().withUserConfiguration(ServerTimingInterceptor.class);
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ServerTimingInterceptor.class));
+        contextRunner.withPropertyValues("server-timing.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(ServerTimingInterceptor.class));
+    }
+}
@@ -4,36 +4,40 @@ drop table if exists roles;
 
 create table roles
 (
-    role_id INTEGER not null primary key auto_increment,
+    role_id INTEGER not null primary key,
     name    VARCHAR not null
 );
 
-insert into roles (name) values ('ROLE_USER');
-insert into roles (name) values ('ROLE_ADMIN');
+insert into roles (role_id, name) values (1, 'ROLE_USER');
+insert into roles (role_id, name) values (2, 'ROLE_ADMIN');
 
 create table users
 (
-    user_id                    INTEGER   not null primary key auto_increment,
+    user_id                    INTEGER   not null primary key,
     first_name                 VARCHAR   not null,
     last_name                  VARCHAR   not null,
     username                   VARCHAR   not null,
+    normalized_username        VARCHAR   not null,
     email                      VARCHAR   not null,
+    normalized_email           VARCHAR   not null,
     password                   VARCHAR   not null,
     updated_at                 TIMESTAMP not null,
     logout_from_all_devices_at TIMESTAMP not null,
     activated                  BOOLEAN   not null,
-    non_locked                 BOOLEAN   not null
+    non_locked                 BOOLEAN   not null,
+    constraint uk_users_username unique (normalized_username),
+    constraint uk_users_email unique (normalized_email)
 );
 
 -- password for users is "123"
-insert into users (first_name, last_name, username, email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
-values ('Admin', 'Admin', 'admin', 'skill.potion21@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, true);
-insert into users (first_name, last_name, username, email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
-values ('User', 'User', 'user', 'decrescendo807@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, true);
-insert into users (first_name, last_name, username, email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
-values ('Not Activated', 'Not Activated', 'not_activated', 'marcellus.hts@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, false, true);
-insert into users (first_name, last_name, username, email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
-values ('Locked', 'Locked', 'locked', 'uvazeni.potpukovnik.naucnik@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, false);
+insert into users (user_id, first_name, last_name, username, normalized_username, email, normalized_email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
+values (1, 'Admin', 'Admin', 'admin', 'admin', 'skill.potion21@gmail.com', 'skill.potion21@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, true);
+insert into users (user_id, first_name, last_name, username, normalized_username, email, normalized_email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
+values (2, 'User', 'User', 'user', 'user', 'decrescendo807@gmail.com', 'decrescendo807@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, true);
+insert into users (user_id, first_name, last_name, username, normalized_username, email, normalized_email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
+values (3, 'Not Activated', 'Not Activated', 'not_activated', 'not_activated', 'marcellus.hts@gmail.com', 'marcellus.hts@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, false, true);
+insert into users (user_id, first_name, last_name, username, normalized_username, email, normalized_email, password, updated_at, logout_from_all_devices_at, activated, non_locked)
+values (4, 'Locked', 'Locked', 'locked', 'locked', 'uvazeni.potpukovnik.naucnik@gmail.com', 'uvazeni.potpukovnik.naucnik@gmail.com', '$2a$10$/zJs.45ISa/1e5UOzxrUpuhhdheUJRZtNCzDYilIF9oJMyvwpVHre', current_timestamp, current_timestamp, true, false);
 
 create table user_roles
 (